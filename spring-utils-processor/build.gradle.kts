@@ -0,0 +1,16 @@
+plugins {
+    `java-library`
+}
+
+group = "hr.axion"
+version = "0.1.9"
+java.sourceCompatibility = JavaVersion.VERSION_17
+
+repositories {
+    mavenCentral()
+}
+
+// no dependencies on purpose - processor works on annotation names, so it can be put
+// on the annotationProcessor path next to spring-utils without a cycle
+dependencies {
+}
@@ -0,0 +1,317 @@
+package hr.axion.patch.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Generates <code>[InputClass]_PatchApplier</code> for every class annotated with <code>@PatchTarget</code>.<br/>
+ * Generated applier copies <code>@PatchProperty</code> fields with direct getter/setter calls, the same way
+ * <code>PatchUtils.applyPatchValuesToTarget</code> does with reflection, and contains the static list
+ * of allowed field masks.<br/>
+ * <br/>
+ * Usage (Gradle):
+ * <pre>
+ * annotationProcessor("hr.axion:spring-utils-processor:[version]")
+ * </pre>
+ */
+@SupportedAnnotationTypes(PatchApplierProcessor.PATCH_TARGET)
+public class PatchApplierProcessor extends AbstractProcessor {
+
+    static final String PATCH_TARGET = "hr.axion.patch.PatchTarget";
+    static final String PATCH_PROPERTY = "hr.axion.patch.PatchProperty";
+    static final String JSON_NODE = "com.fasterxml.jackson.databind.JsonNode";
+    static final String FIELD_MASK = "hr.axion.patch.FieldMask";
+    static final String APPLIER_SUFFIX = "_PatchApplier";
+
+    // local variable names of the applier being generated
+    private int localVariableCount;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    error(element, "@PatchTarget can be used only on classes");
+                    continue;
+                }
+                try {
+                    generateApplier((TypeElement) element);
+                } catch (IOException e) {
+                    error(element, "Error while generating patch applier: " + e.getMessage());
+                } catch (PatchApplierException e) {
+                    error(e.element, e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generateApplier(final TypeElement inputType) throws IOException {
+        final TypeElement targetType = getTargetType(inputType);
+        final String packageName = processingEnv.getElementUtils().getPackageOf(inputType).getQualifiedName().toString();
+        final String applierName = applierSimpleName(inputType);
+
+        localVariableCount = 0;
+        final List<String> patchFields = new ArrayList<>();
+        final StringBuilder applyBody = new StringBuilder();
+        collectFields(inputType, "input", "fieldMask", "", "        ", patchFields, applyBody, new ArrayDeque<>());
+
+        final String inputName = inputType.getQualifiedName().toString();
+        final String targetName = targetType.getQualifiedName().toString();
+        final StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(applierName)
+                .append(" implements hr.axion.patch.PatchApplier<").append(inputName).append(", ").append(targetName).append("> {\n\n")
+                .append("    private static final java.util.List<String> PATCH_FIELDS = java.util.List.of(")
+                .append(String.join(", ", patchFields.stream().map(PatchApplierProcessor::quote).toList()))
+                .append(");\n\n")
+                .append("    @Override\n")
+                .append("    public Class<").append(inputName).append("> inputType() {\n")
+                .append("        return ").append(inputName).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public Class<").append(targetName).append("> targetType() {\n")
+                .append("        return ").append(targetName).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<String> patchFields() {\n")
+                .append("        return PATCH_FIELDS;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public void apply(final ").append(FIELD_MASK).append(" fieldMask, final ").append(inputName)
+                .append(" input, final ").append(targetName).append(" target,\n")
+                .append("                      final java.util.function.BiConsumer<String, Exception> errorHandler) {\n")
+                .append(applyBody)
+                .append("    }\n")
+                .append("}\n");
+
+        final String qualifiedName = packageName.isEmpty() ? applierName : packageName + "." + applierName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, inputType).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    /**
+     * Mirrors PatchUtils.getPatchFieldsForClass and applyPatchValuesToTarget - value fields are copied
+     * if contained in the mask, JsonNode fields are merged and custom types are processed recursively
+     * against the same target. Field errors are passed to the error handler and the next field is processed.
+     */
+    private void collectFields(final TypeElement type, final String inputVar, final String maskVar, final String prefix,
+                               final String indent, final List<String> patchFields, final StringBuilder body,
+                               final Deque<TypeElement> visiting) {
+        if (visiting.contains(type)) {
+            throw new PatchApplierException(type, "Cyclic @PatchProperty type " + type.getQualifiedName()
+                    + " can't be used with @PatchTarget");
+        }
+        visiting.push(type);
+        for (VariableElement field : getPatchPropertyFields(type)) {
+            final AnnotationMirror patchProperty = findAnnotation(field, PATCH_PROPERTY).orElseThrow();
+            final String name = field.getSimpleName().toString();
+            final String path = prefix + name;
+            final TypeMirror fieldType = processingEnv.getTypeUtils().erasure(field.asType());
+            final String getter = inputVar + "." + getterName(type, field) + "()";
+            final String mapToField = (String) annotationValue(patchProperty, "mapToField");
+            final String targetField = mapToField.isEmpty() ? name : mapToField;
+
+            if (isNonCustomType(fieldType, patchProperty)) {
+                patchFields.add(path);
+                body.append(indent).append("if (").append(maskVar).append(".contains(").append(quote(name)).append(")) {\n")
+                        .append(indent).append("    try {\n")
+                        .append(indent).append("        target.set").append(capitalize(targetField)).append("(")
+                        .append(getter).append(");\n");
+                appendCatch(body, indent + "    ", path);
+                body.append(indent).append("}\n");
+            } else if (isType(fieldType, JSON_NODE)) {
+                patchFields.add(path + ".*");
+                final String updateVar = nextVariable("patch_");
+                body.append(indent).append("try {\n")
+                        .append(indent).append("    final ").append(JSON_NODE).append(" ").append(updateVar).append(" = ")
+                        .append(getter).append(";\n")
+                        .append(indent).append("    if (").append(updateVar).append(" != null) {\n")
+                        .append(indent).append("        target.set").append(capitalize(targetField))
+                        .append("(hr.axion.patch.PatchUtils.patchJsonNode(").append(maskVar).append(".child(")
+                        .append(quote(name)).append("), target.get").append(capitalize(targetField)).append("(), ")
+                        .append(updateVar).append("));\n")
+                        .append(indent).append("    }\n");
+                appendCatch(body, indent, path);
+            } else if (fieldType.getKind() == TypeKind.DECLARED) {
+                final TypeElement childType = (TypeElement) ((DeclaredType) fieldType).asElement();
+                final String childVar = nextVariable("patch_");
+                final String childMaskVar = nextVariable("mask_");
+                body.append(indent).append("try {\n")
+                        .append(indent).append("    final ").append(childType.getQualifiedName()).append(" ").append(childVar)
+                        .append(" = ").append(getter).append(";\n")
+                        .append(indent).append("    if (").append(childVar).append(" != null) {\n")
+                        .append(indent).append("        final ").append(FIELD_MASK).append(" ").append(childMaskVar)
+                        .append(" = ").append(maskVar).append(".child(").append(quote(name)).append(");\n");
+                collectFields(childType, childVar, childMaskVar, path + ".", indent + "        ", patchFields, body,
+                        visiting);
+                body.append(indent).append("    }\n");
+                appendCatch(body, indent, path);
+            }
+            // arrays don't have patchable fields
+        }
+        visiting.pop();
+    }
+
+    /**
+     * Fields of the class first, then fields of super classes (same order as FieldUtils.getAllFieldsList)
+     */
+    private List<VariableElement> getPatchPropertyFields(final TypeElement type) {
+        final List<VariableElement> fields = new ArrayList<>();
+        TypeElement current = type;
+        while (current != null && !current.getQualifiedName().contentEquals(Object.class.getName())) {
+            ElementFilter.fieldsIn(current.getEnclosedElements()).stream()
+                    .filter(field -> findAnnotation(field, PATCH_PROPERTY).isPresent())
+                    .forEach(fields::add);
+            final TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ?
+                    (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return fields;
+    }
+
+    private boolean isNonCustomType(final TypeMirror type, final AnnotationMirror patchProperty) {
+        if (Boolean.TRUE.equals(annotationValue(patchProperty, "forceAsPrimitive"))) {
+            return true;
+        }
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString().startsWith("java");
+    }
+
+    private boolean isType(final TypeMirror type, final String qualifiedName) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(qualifiedName);
+    }
+
+    /**
+     * Existing is/get method is used if found, otherwise JavaBean convention (methods can be added later, e.g. by Lombok)
+     */
+    private String getterName(final TypeElement type, final VariableElement field) {
+        final String capitalized = capitalize(field.getSimpleName().toString());
+        final List<String> methodNames = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))
+                .stream()
+                .filter(method -> method.getParameters().isEmpty())
+                .map(method -> method.getSimpleName().toString())
+                .toList();
+        if (methodNames.contains("is" + capitalized)) {
+            return "is" + capitalized;
+        }
+        if (methodNames.contains("get" + capitalized)) {
+            return "get" + capitalized;
+        }
+        return field.asType().getKind() == TypeKind.BOOLEAN ? "is" + capitalized : "get" + capitalized;
+    }
+
+    private TypeElement getTargetType(final TypeElement inputType) {
+        final AnnotationMirror patchTarget = findAnnotation(inputType, PATCH_TARGET).orElseThrow();
+        final TypeMirror target = (TypeMirror) annotationValue(patchTarget, "value");
+        if (target.getKind() != TypeKind.DECLARED) {
+            throw new PatchApplierException(inputType, "@PatchTarget value must be a class");
+        }
+        return (TypeElement) ((DeclaredType) target).asElement();
+    }
+
+    private Optional<AnnotationMirror> findAnnotation(final Element element, final String annotationName) {
+        return element.getAnnotationMirrors().stream()
+                .filter(mirror -> ((TypeElement) mirror.getAnnotationType().asElement())
+                        .getQualifiedName().contentEquals(annotationName))
+                .map(mirror -> (AnnotationMirror) mirror)
+                .findFirst();
+    }
+
+    private Object annotationValue(final AnnotationMirror mirror, final String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Same naming as PatchAppliers.applierClassName - binary name without package, '$' replaced with '_'
+     */
+    private String applierSimpleName(final TypeElement inputType) {
+        final PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(inputType);
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(inputType).toString();
+        final String localName = packageElement.isUnnamed() ?
+                binaryName : binaryName.substring(packageElement.getQualifiedName().length() + 1);
+        return localName.replace('$', '_') + APPLIER_SUFFIX;
+    }
+
+    private void error(final Element element, final String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * Same as PatchUtils.applyPlan - error is reported for the field path, processing continues
+     */
+    private static void appendCatch(final StringBuilder body, final String indent, final String path) {
+        body.append(indent).append("} catch (RuntimeException e) {\n")
+                .append(indent).append("    errorHandler.accept(").append(quote(path)).append(", e);\n")
+                .append(indent).append("}\n");
+    }
+
+    /**
+     * Index based, field paths can't be used (e.g. <code>a_b</code> and <code>a.b</code> would collide)
+     */
+    private String nextVariable(final String prefix) {
+        return prefix + localVariableCount++;
+    }
+
+    private static String capitalize(final String name) {
+        return name.isEmpty() ? name : Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String quote(final String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static class PatchApplierException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Element element;
+
+        PatchApplierException(final Element element, final String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
@@ -4,6 +4,7 @@ plugins {
     id("io.spring.dependency-management") version "1.1.4"
     kotlin("jvm") version "1.9.23"
     kotlin("plugin.spring") version "1.7.10"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "hr.axion"
@@ -36,6 +37,7 @@ dependencies {
     compileOnly(group = "org.zalando", name = "logbook-servlet", version = "3.7.2", classifier = "javax")
     compileOnly("org.zalando:logbook-spring-boot-starter:3.7.2")
     compileOnly("org.zalando:logbook-okhttp:3.7.2")
+    compileOnly("io.micrometer:micrometer-core")
 
     testCompileOnly("org.projectlombok:lombok")
     testAnnotationProcessor("org.projectlombok:lombok")
@@ -46,9 +48,77 @@ dependencies {
     testImplementation("org.springframework.boot:spring-boot-starter-web")
     testImplementation("org.springframework.boot:spring-boot-starter-data-jpa")
     testRuntimeOnly("com.h2database:h2")
+    testImplementation("hr.axion:spring-utils-processor:$version")
+
+    // benchmarks (src/jmh), compileOnly dependencies used by benchmarked code
+    jmhCompileOnly("org.projectlombok:lombok")
+    jmhAnnotationProcessor("org.projectlombok:lombok")
+    jmhImplementation("org.springframework.boot:spring-boot-starter-web")
+    jmhImplementation("org.springframework.boot:spring-boot-starter-validation")
+    jmhImplementation("org.springframework.boot:spring-boot-starter-data-jpa")
 
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
+}
+
+// ./gradlew jmh [-Pjmh.includes=Patch] [-Pjmh.baseline=path/to/results.json] [-Pjmh.maxRegression=10]
+val jmhResults = layout.buildDirectory.file("reports/jmh/results.json")
+val jmhSummary = layout.buildDirectory.file("reports/jmh/summary.md")
+
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    resultsFile.set(jmhResults)
+    humanOutputFile.set(layout.buildDirectory.file("reports/jmh/human.txt"))
+    findProperty("jmh.includes")?.let { includes.set(listOf(it.toString())) }
+}
+
+val jmhReport by tasks.registering {
+    group = "benchmark"
+    description = "Writes JMH results as markdown table, compared with -Pjmh.baseline results if set."
+    inputs.file(jmhResults)
+    outputs.file(jmhSummary)
+    doLast {
+        @Suppress("UNCHECKED_CAST")
+        fun readScores(file: File): Map<String, Map<String, Any>> =
+            (groovy.json.JsonSlurper().parse(file) as List<Map<String, Any>>).associateBy { result ->
+                val params = (result["params"] as Map<String, Any>?)?.entries?.joinToString(",") { "${it.key}=${it.value}" }
+                result["benchmark"].toString().substringAfterLast(".") + (params?.let { "($it)" } ?: "")
+            }.mapValues { it.value["primaryMetric"] as Map<String, Any> }
+
+        val results = readScores(jmhResults.get().asFile)
+        val baseline = findProperty("jmh.baseline")?.let { readScores(file(it)) } ?: emptyMap()
+        val maxRegression = findProperty("jmh.maxRegression")?.toString()?.toDouble()
+        val regressions = mutableListOf<String>()
+        val lines = mutableListOf(
+            "| Benchmark | Score | Error | Unit | Baseline | Change |",
+            "|---|---:|---:|---|---:|---:|"
+        )
+        results.forEach { (name, metric) ->
+            val score = (metric["score"] as Number).toDouble()
+            val unit = metric["scoreUnit"].toString()
+            val base = (baseline[name]?.get("score") as Number?)?.toDouble()
+            // scores are time per operation (lower is better) or operations per time (higher is better)
+            val change = base?.let { if (unit.startsWith("ops")) (base - score) / base * 100 else (score - base) / base * 100 }
+            if (change != null && maxRegression != null && change > maxRegression) {
+                regressions.add("$name: %.1f%% slower".format(change))
+            }
+            lines.add("| $name | %.3f | %.3f | $unit | %s | %s |".format(
+                score, (metric["scoreError"] as Number).toDouble(),
+                base?.let { "%.3f".format(it) } ?: "-", change?.let { "%+.1f%%".format(it) } ?: "-"))
+        }
+        jmhSummary.get().asFile.writeText(lines.joinToString("\n") + "\n")
+        logger.lifecycle(lines.joinToString("\n"))
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Benchmark regressions over $maxRegression%: ${regressions.joinToString()}")
+        }
+    }
+}
+
+tasks.named("jmh") {
+    finalizedBy(jmhReport)
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+rootProject.name = "spring-utils"
+
+// processor is used by tests compiling generated patch appliers
+includeBuild("../spring-utils-processor")
@@ -0,0 +1,69 @@
+package hr.axion.paging;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * {@link OrderByField.OrderByFieldValidator} and {@link PagedRequest#toPageable()} for a report
+ * endpoint with 40 sortable columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PagingBenchmark {
+
+    @Param({"1", "3", "10"})
+    public int orderBySize;
+
+    private final OrderByField.OrderByFieldValidator validator = new OrderByField.OrderByFieldValidator();
+    private ReportRequest request;
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class ReportRequest extends PagedRequest {
+        @OrderByField(allowedValues = {
+            "column1", "column2", "column3", "column4", "column5", "column6", "column7", "column8",
+            "column9", "column10", "column11", "column12", "column13", "column14", "column15",
+            "column16", "column17", "column18", "column19", "column20", "column21", "column22",
+            "column23", "column24", "column25", "column26", "column27", "column28", "column29",
+            "column30", "column31", "column32", "column33", "column34", "column35", "column36",
+            "column37", "column38", "column39", "column40"
+        })
+        private List<String> orderBy;
+    }
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        validator.initialize(ReportRequest.class.getDeclaredField("orderBy").getAnnotation(OrderByField.class));
+        request = new ReportRequest();
+        request.setPage(3);
+        request.setPageSize(50);
+        // mix of plain, asc and desc values from the end of the allowed list
+        request.setOrderBy(IntStream.range(0, orderBySize)
+                .mapToObj(i -> "Column" + (40 - i) + (i % 3 == 0 ? "" : i % 3 == 1 ? ":asc" : ":DESC"))
+                .toList());
+    }
+
+    @Benchmark
+    public boolean validateOrderBy() {
+        return validator.isValid(request.getOrderBy(), null);
+    }
+
+    @Benchmark
+    public Pageable toPageable() {
+        return request.toPageable();
+    }
+}
@@ -0,0 +1,165 @@
+package hr.axion.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Data;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * DTO and entity shapes used by patch benchmarks
+ */
+final class BenchmarkData {
+
+    static final int FIELD_COUNT = 10;
+    static final int JSON_KEY_COUNT = 200;
+
+    private BenchmarkData() {
+    }
+
+    @Data
+    public static class Entity {
+        private String field1;
+        private String field2;
+        private String field3;
+        private String field4;
+        private String field5;
+        private String field6;
+        private String field7;
+        private String field8;
+        private String field9;
+        private String field10;
+        private String street;
+        private String city;
+        private String zip;
+        private String country;
+        private JsonNode extraInfo;
+    }
+
+    @Data
+    public static class FlatPatch {
+        @PatchProperty
+        private String field1;
+        @PatchProperty
+        private String field2;
+        @PatchProperty
+        private String field3;
+        @PatchProperty
+        private String field4;
+        @PatchProperty
+        private String field5;
+        @PatchProperty
+        private String field6;
+        @PatchProperty
+        private String field7;
+        @PatchProperty
+        private String field8;
+        @PatchProperty
+        private String field9;
+        @PatchProperty
+        private String field10;
+    }
+
+    @Data
+    public static class Address {
+        @PatchProperty
+        private String street;
+        @PatchProperty
+        private String city;
+        @PatchProperty
+        private String zip;
+        @PatchProperty
+        private String country;
+    }
+
+    @Data
+    public static class NestedPatch {
+        @PatchProperty
+        private String field1;
+        @PatchProperty
+        private String field2;
+        @PatchProperty
+        private String field3;
+        @PatchProperty
+        private String field4;
+        @PatchProperty
+        private String field5;
+        @PatchProperty
+        private Address address;
+    }
+
+    @Data
+    public static class JsonPatch {
+        @PatchProperty
+        private JsonNode extraInfo;
+    }
+
+    static FlatPatch flatPatch() {
+        final FlatPatch patch = new FlatPatch();
+        patch.setField1("value1");
+        patch.setField2("value2");
+        patch.setField3("value3");
+        patch.setField4("value4");
+        patch.setField5("value5");
+        patch.setField6("value6");
+        patch.setField7("value7");
+        patch.setField8("value8");
+        patch.setField9("value9");
+        patch.setField10("value10");
+        return patch;
+    }
+
+    static NestedPatch nestedPatch() {
+        final Address address = new Address();
+        address.setStreet("Ilica 1");
+        address.setCity("Zagreb");
+        address.setZip("10000");
+        address.setCountry("HR");
+        final NestedPatch patch = new NestedPatch();
+        patch.setField1("value1");
+        patch.setField2("value2");
+        patch.setField3("value3");
+        patch.setField4("value4");
+        patch.setField5("value5");
+        patch.setAddress(address);
+        return patch;
+    }
+
+    /**
+     * @return object with {@link #JSON_KEY_COUNT} keys, every tenth key is an object with 5 keys
+     */
+    static ObjectNode jsonNode(final String valuePrefix) {
+        final ObjectNode node = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < JSON_KEY_COUNT; i++) {
+            if (i % 10 == 0) {
+                final ObjectNode child = node.putObject("key" + i);
+                for (int j = 0; j < 5; j++) {
+                    child.put("sub" + j, valuePrefix + j);
+                }
+            } else {
+                node.put("key" + i, valuePrefix + i);
+            }
+        }
+        return node;
+    }
+
+    static List<String> flatMask(final int size) {
+        return IntStream.rangeClosed(1, size).mapToObj(i -> "field" + i).toList();
+    }
+
+    static List<String> nestedMask(final int size) {
+        return IntStream.rangeClosed(1, size)
+                .mapToObj(i -> i <= 5 ? "field" + i : List.of("street", "city", "zip", "country").get((i - 6) % 4))
+                .map(field -> field.startsWith("field") ? field : "address." + field)
+                .distinct()
+                .toList();
+    }
+
+    static List<String> jsonMask(final int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> i % 10 == 0 ? "extraInfo.key" + i + ".sub1" : "extraInfo.key" + i)
+                .toList();
+    }
+}
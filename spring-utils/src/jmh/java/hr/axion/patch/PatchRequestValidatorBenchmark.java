@@ -0,0 +1,58 @@
+package hr.axion.patch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DefaultPatchRequestValidator} with valid masks (constraint context is used only for violations).
+ * New request is created per call, as every HTTP request has its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PatchRequestValidatorBenchmark {
+
+    @Param({"1", "5", "10"})
+    public int maskSize;
+
+    private final DefaultPatchRequestValidator validator = new DefaultPatchRequestValidator();
+    private BenchmarkData.NestedPatch nestedPatch;
+    private BenchmarkData.JsonPatch jsonPatch;
+    private List<String> nestedMask;
+    private List<String> jsonMask;
+
+    @Setup
+    public void setUp() {
+        nestedPatch = BenchmarkData.nestedPatch();
+        jsonPatch = new BenchmarkData.JsonPatch();
+        jsonPatch.setExtraInfo(BenchmarkData.jsonNode("updated"));
+        nestedMask = BenchmarkData.nestedMask(maskSize);
+        jsonMask = BenchmarkData.jsonMask(maskSize);
+    }
+
+    @Benchmark
+    public boolean validateNested() {
+        return validator.isValid(request(nestedPatch, nestedMask), null);
+    }
+
+    @Benchmark
+    public boolean validateJsonNode() {
+        return validator.isValid(request(jsonPatch, jsonMask), null);
+    }
+
+    private static <T> PatchRequest<T> request(final T data, final List<String> fieldMask) {
+        final PatchRequest<T> request = new PatchRequest<>();
+        request.setData(data);
+        request.setFieldMask(fieldMask);
+        return request;
+    }
+}
@@ -0,0 +1,81 @@
+package hr.axion.patch;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PatchUtils#applyPatchValuesToTarget} for flat, nested and JsonNode inputs.
+ * Field mask is passed as list, so building the mask index is part of the measured call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PatchUtilsBenchmark {
+
+    @Param({"1", "5", "10"})
+    public int maskSize;
+
+    private BenchmarkData.FlatPatch flatPatch;
+    private BenchmarkData.NestedPatch nestedPatch;
+    private BenchmarkData.JsonPatch jsonPatch;
+    private List<String> flatMask;
+    private List<String> nestedMask;
+    private List<String> jsonMask;
+
+    @Setup
+    public void setUp() {
+        flatPatch = BenchmarkData.flatPatch();
+        nestedPatch = BenchmarkData.nestedPatch();
+        jsonPatch = new BenchmarkData.JsonPatch();
+        jsonPatch.setExtraInfo(BenchmarkData.jsonNode("updated"));
+        flatMask = BenchmarkData.flatMask(maskSize);
+        nestedMask = BenchmarkData.nestedMask(maskSize);
+        jsonMask = BenchmarkData.jsonMask(maskSize);
+    }
+
+    /**
+     * JsonNode target is modified by the patch, so every invocation gets a new one
+     */
+    @State(Scope.Thread)
+    public static class JsonTarget {
+        private final ObjectNode original = BenchmarkData.jsonNode("original");
+        BenchmarkData.Entity entity;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            entity = new BenchmarkData.Entity();
+            entity.setExtraInfo(original.deepCopy());
+        }
+    }
+
+    @Benchmark
+    public BenchmarkData.Entity applyFlat() {
+        return PatchUtils.applyPatchValuesToTarget(flatMask, flatPatch, new BenchmarkData.Entity());
+    }
+
+    @Benchmark
+    public BenchmarkData.Entity applyNested() {
+        return PatchUtils.applyPatchValuesToTarget(nestedMask, nestedPatch, new BenchmarkData.Entity());
+    }
+
+    @Benchmark
+    public BenchmarkData.Entity applyJsonNode(final JsonTarget target) {
+        return PatchUtils.applyPatchValuesToTarget(jsonMask, jsonPatch, target.entity);
+    }
+
+    @Benchmark
+    public List<String> getPatchFieldsForClass() {
+        return PatchUtils.getPatchFieldsForClass(BenchmarkData.NestedPatch.class);
+    }
+}
@@ -0,0 +1,82 @@
+package hr.axion.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual thread executors when running on Java 21+, resolved by reflection because the library is built
+ * for Java 17. On older runtimes platform daemon threads are used instead.
+ */
+@Slf4j
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = findOfVirtual();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * @param threadNamePrefix thread name prefix, threads are named <code>prefix0</code>, <code>prefix1</code>...
+     * @return virtual thread factory, or daemon platform thread factory if virtual threads aren't supported
+     */
+    public static ThreadFactory threadFactory(String threadNamePrefix) {
+        if (OF_VIRTUAL != null) {
+            try {
+                final Object builder = OF_VIRTUAL.invoke(null);
+                final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                final Object namedBuilder = builderClass.getMethod("name", String.class, long.class)
+                        .invoke(builder, threadNamePrefix, 0L);
+                return (ThreadFactory) builderClass.getMethod("factory").invoke(namedBuilder);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads can't be created, using platform threads", e);
+            }
+        }
+        return daemonThreadFactory(threadNamePrefix);
+    }
+
+    /**
+     * @return executor starting a new virtual thread per task, or cached pool of daemon platform threads
+     * if virtual threads aren't supported; caller shuts it down
+     */
+    public static ExecutorService newExecutor(String threadNamePrefix) {
+        final ThreadFactory threadFactory = threadFactory(threadNamePrefix);
+        if (OF_VIRTUAL != null) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, threadFactory);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual thread executor can't be created, using platform threads", e);
+            }
+        }
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * @return factory creating daemon platform threads
+     */
+    public static ThreadFactory daemonThreadFactory(String threadNamePrefix) {
+        final AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, threadNamePrefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Method findOfVirtual() {
+        try {
+            return Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package hr.axion.logbook;
+
+import hr.axion.concurrent.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpLogWriter;
+import org.zalando.logbook.Precorrelation;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link HttpLogWriter} that queues formatted messages and writes them to the delegate writer on a
+ * background daemon thread, in batches of up to <code>batchSize</code> messages.<br/>
+ * Queue is lock-free and bounded by <code>capacity</code>, when full the {@link DropPolicy} applies, so writing
+ * never blocks the HTTP client thread (except with {@link DropPolicy#CALLER_RUNS}).<br/>
+ * Every instance starts its own thread, share one instance between clients and close it on shutdown.
+ */
+@Slf4j
+public class AsyncHttpLogWriter implements HttpLogWriter, AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    public enum DropPolicy {
+        /**
+         * Discard the message being written
+         */
+        DROP_NEWEST,
+        /**
+         * Discard the oldest queued message
+         */
+        DROP_OLDEST,
+        /**
+         * Write the message synchronously on the calling thread
+         */
+        CALLER_RUNS
+    }
+
+    private final HttpLogWriter delegate;
+    private final int capacity;
+    private final int batchSize;
+    private final DropPolicy dropPolicy;
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    public AsyncHttpLogWriter(HttpLogWriter delegate) {
+        this(delegate, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DropPolicy.DROP_NEWEST);
+    }
+
+    public AsyncHttpLogWriter(HttpLogWriter delegate, int capacity, int batchSize, DropPolicy dropPolicy) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Capacity and batch size must be greater than zero");
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.dropPolicy = dropPolicy;
+        this.writerThread = VirtualThreads.daemonThreadFactory("async-http-log-writer-").newThread(this::run);
+        this.writerThread.start();
+    }
+
+    @Override
+    public boolean isActive() {
+        return delegate.isActive();
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, String request) {
+        enqueue(new Entry(precorrelation, request));
+    }
+
+    @Override
+    public void write(Correlation correlation, String response) {
+        enqueue(new Entry(correlation, response));
+    }
+
+    /**
+     * @return messages discarded because the queue was full
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return messages written to the delegate writer
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    /**
+     * Stops the background thread and writes the remaining messages on the calling thread
+     */
+    @Override
+    public void close() {
+        close(Duration.ofSeconds(5));
+    }
+
+    public void close(Duration timeout) {
+        closed = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(timeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainAll();
+    }
+
+    private void enqueue(Entry entry) {
+        if (closed) {
+            writeEntry(entry);
+            return;
+        }
+        if (queueSize.incrementAndGet() > capacity) {
+            switch (dropPolicy) {
+                case DROP_NEWEST -> {
+                    queueSize.decrementAndGet();
+                    droppedCount.incrementAndGet();
+                    return;
+                }
+                case DROP_OLDEST -> {
+                    if (queue.poll() != null) {
+                        queueSize.decrementAndGet();
+                        droppedCount.incrementAndGet();
+                    }
+                }
+                case CALLER_RUNS -> {
+                    queueSize.decrementAndGet();
+                    writeEntry(entry);
+                    return;
+                }
+            }
+        }
+        queue.offer(entry);
+        if (closed) {
+            // closed while enqueueing, worker and final drain of close() may have already finished
+            drainAll();
+            return;
+        }
+        LockSupport.unpark(writerThread);
+    }
+
+    private void run() {
+        while (!closed) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void drainAll() {
+        while (drain() > 0) {
+            // write remaining
+        }
+    }
+
+    private int drain() {
+        int written = 0;
+        Entry entry;
+        while (written < batchSize && (entry = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            writeEntry(entry);
+            written++;
+        }
+        return written;
+    }
+
+    private void writeEntry(Entry entry) {
+        try {
+            if (entry.correlation() != null) {
+                delegate.write(entry.correlation(), entry.message());
+            } else {
+                delegate.write(entry.precorrelation(), entry.message());
+            }
+            writtenCount.incrementAndGet();
+        } catch (Exception e) {
+            log.error("Error while writing HTTP log", e);
+        }
+    }
+
+    private record Entry(Precorrelation precorrelation, Correlation correlation, String message) {
+
+        private Entry(Precorrelation precorrelation, String request) {
+            this(precorrelation, null, request);
+        }
+
+        private Entry(Correlation correlation, String response) {
+            this(correlation, correlation, response);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package hr.axion.logbook;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpLogFormatter;
+import org.zalando.logbook.HttpLogWriter;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Precorrelation;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorators recording time spent in Logbook formatting (<code>logbook.format</code>) and
+ * writing (<code>logbook.write</code>) with Micrometer.
+ */
+public final class LogbookMetrics {
+
+    private LogbookMetrics() {
+    }
+
+    public static HttpLogFormatter timed(HttpLogFormatter formatter, MeterRegistry meterRegistry, Tags tags) {
+        final Timer requestTimer = timer("logbook.format", "request", meterRegistry, tags);
+        final Timer responseTimer = timer("logbook.format", "response", meterRegistry, tags);
+        return new HttpLogFormatter() {
+            @Override
+            public String format(Precorrelation precorrelation, HttpRequest request) throws IOException {
+                final long start = System.nanoTime();
+                try {
+                    return formatter.format(precorrelation, request);
+                } finally {
+                    requestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public String format(Correlation correlation, HttpResponse response) throws IOException {
+                final long start = System.nanoTime();
+                try {
+                    return formatter.format(correlation, response);
+                } finally {
+                    responseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        };
+    }
+
+    public static HttpLogWriter timed(HttpLogWriter writer, MeterRegistry meterRegistry, Tags tags) {
+        final Timer requestTimer = timer("logbook.write", "request", meterRegistry, tags);
+        final Timer responseTimer = timer("logbook.write", "response", meterRegistry, tags);
+        return new HttpLogWriter() {
+            @Override
+            public boolean isActive() {
+                return writer.isActive();
+            }
+
+            @Override
+            public void write(Precorrelation precorrelation, String request) throws IOException {
+                final long start = System.nanoTime();
+                try {
+                    writer.write(precorrelation, request);
+                } finally {
+                    requestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public void write(Correlation correlation, String response) throws IOException {
+                final long start = System.nanoTime();
+                try {
+                    writer.write(correlation, response);
+                } finally {
+                    responseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        };
+    }
+
+    private static Timer timer(String name, String type, MeterRegistry meterRegistry, Tags tags) {
+        return Timer.builder(name).tags(tags).tag("type", type).register(meterRegistry);
+    }
+}
@@ -1,6 +1,13 @@
 package hr.axion.logbook;
 
 import org.zalando.logbook.BodyFilter;
+import org.zalando.logbook.HeaderFilter;
+import org.zalando.logbook.QueryFilter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  *
@@ -16,7 +23,85 @@ public final class LogbookUtils {
     private LogbookUtils() {
     }
 
+    /**
+     * Replaces every character with <code>*</code>, except line terminators (same as
+     * <code>data.replaceAll(".", "*")</code>)
+     */
     public static String maskData(String data) {
-        return data.replaceAll(".", "*");
+        final StringBuilder masked = new StringBuilder(data.length());
+        for (int i = 0; i < data.length(); ) {
+            final int codePoint = data.codePointAt(i);
+            masked.append(isLineTerminator(codePoint) ? (char) codePoint : '*');
+            i += Character.charCount(codePoint);
+        }
+        return masked.toString();
+    }
+
+    /**
+     * @param headers headers to mask, case-insensitive
+     * @return single filter replacing values of all given headers with the mask
+     */
+    public static HeaderFilter maskHeaders(Collection<String> headers, String mask) {
+        final Set<String> maskedHeaders = caseInsensitiveSet(headers);
+        return httpHeaders -> httpHeaders.apply((name, values) -> maskedHeaders.contains(name),
+                (name, values) -> Collections.nCopies(values.size(), mask));
+    }
+
+    /**
+     * @param parameters query parameters to mask, case-insensitive
+     * @return single filter replacing values of all given query parameters with the mask
+     */
+    public static QueryFilter maskQueryParameters(Collection<String> parameters, String mask) {
+        final Set<String> maskedParameters = caseInsensitiveSet(parameters);
+        return query -> maskQuery(query, maskedParameters, mask);
+    }
+
+    private static String maskQuery(String query, Set<String> maskedParameters, String mask) {
+        StringBuilder masked = null;
+        int start = 0;
+        while (start <= query.length()) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = query.length();
+            }
+            final int separator = indexOf(query, '=', start, end);
+            if (separator >= 0 && maskedParameters.contains(query.substring(start, separator))) {
+                if (masked == null) {
+                    masked = new StringBuilder(query.length());
+                    masked.append(query, 0, start);
+                }
+                masked.append(query, start, separator + 1).append(mask);
+            } else if (masked != null) {
+                masked.append(query, start, end);
+            }
+            if (masked != null && end < query.length()) {
+                masked.append('&');
+            }
+            start = end + 1;
+        }
+        return masked == null ? query : masked.toString();
+    }
+
+    /**
+     * @return index of the character within [start, end), -1 if not found
+     */
+    private static int indexOf(String value, char character, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == character) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Set<String> caseInsensitiveSet(Collection<String> values) {
+        final Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(values);
+        return Collections.unmodifiableSet(set);
+    }
+
+    private static boolean isLineTerminator(int codePoint) {
+        return codePoint == '\n' || codePoint == '\r' || codePoint == '\u0085'
+                || codePoint == '\u2028' || codePoint == '\u2029';
     }
 }
@@ -0,0 +1,233 @@
+package hr.axion.logbook;
+
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.ForwardingHttpRequest;
+import org.zalando.logbook.ForwardingHttpResponse;
+import org.zalando.logbook.HttpMessage;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.Strategy;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Logbook {@link Strategy} logging a sample of exchanges and capping logged body size.
+ * <ul>
+ *     <li>exchanges are sampled when the request is sent, bodies of exchanges which aren't sampled aren't buffered.
+ *     Sampled exchanges are logged when the response is received (request and response together),
+ *     error responses (status &gt;= 400) are always logged - without the request body if the exchange
+ *     wasn't sampled</li>
+ *     <li>bodies with <code>Content-Length</code> over <code>maxBodySize</code> bytes aren't buffered,
+ *     they are logged as <code>&lt;body of N bytes omitted&gt;</code>. Bodies of unknown length are buffered
+ *     (Logbook can buffer only whole bodies) and logged truncated to the first <code>maxBodySize</code> bytes</li>
+ * </ul>
+ */
+public class SamplingStrategy implements Strategy {
+
+    private static final int ERROR_STATUS = 400;
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private final BooleanSupplier sampler;
+    private final int maxBodySize;
+
+    /**
+     * @param sampler     decides if exchange is logged, null to log all exchanges
+     * @param maxBodySize max logged body size in bytes, negative for no limit
+     */
+    public SamplingStrategy(BooleanSupplier sampler, int maxBodySize) {
+        this.sampler = sampler;
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * @param probability probability of logging an exchange, 0 - 1
+     */
+    public static SamplingStrategy probabilistic(double probability, int maxBodySize) {
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("Probability must be between 0 and 1");
+        }
+        return new SamplingStrategy(() -> ThreadLocalRandom.current().nextDouble() < probability, maxBodySize);
+    }
+
+    /**
+     * @param perSecond max logged exchanges per second (error responses are logged over the limit)
+     */
+    public static SamplingStrategy rateLimited(int perSecond, int maxBodySize) {
+        return new SamplingStrategy(new RateLimiter(perSecond), maxBodySize);
+    }
+
+    /**
+     * @param maxBodySize max logged body size in bytes, all exchanges are logged
+     */
+    public static SamplingStrategy bodySizeLimited(int maxBodySize) {
+        return new SamplingStrategy(null, maxBodySize);
+    }
+
+    @Override
+    public HttpRequest process(HttpRequest request) throws IOException {
+        if (sampler != null && !sampler.getAsBoolean()) {
+            return new UnsampledRequest(request.withoutBody());
+        }
+        final long contentLength = contentLength(request);
+        if (maxBodySize >= 0 && contentLength > maxBodySize) {
+            return LimitedBodyRequest.omitted(request.withoutBody(), contentLength);
+        }
+        final HttpRequest buffered = request.withBody();
+        final byte[] body = buffered.getBody();
+        return maxBodySize >= 0 && body.length > maxBodySize ? new LimitedBodyRequest(buffered, body, maxBodySize) : buffered;
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request, Sink sink) throws IOException {
+        if (sampler == null) {
+            sink.write(precorrelation, request);
+        }
+        // otherwise written with the response, once status is known
+    }
+
+    @Override
+    public HttpResponse process(HttpRequest request, HttpResponse response) throws IOException {
+        if (response.getStatus() < ERROR_STATUS && isUnsampled(request)) {
+            return response.withoutBody();
+        }
+        final long contentLength = contentLength(response);
+        if (maxBodySize >= 0 && contentLength > maxBodySize) {
+            return LimitedBodyResponse.omitted(response.withoutBody(), contentLength);
+        }
+        final HttpResponse buffered = response.withBody();
+        final byte[] body = buffered.getBody();
+        return maxBodySize >= 0 && body.length > maxBodySize ? new LimitedBodyResponse(buffered, body, maxBodySize) : buffered;
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response, Sink sink) throws IOException {
+        if (sampler == null) {
+            sink.write(correlation, request, response);
+        } else if (response.getStatus() >= ERROR_STATUS || !isUnsampled(request)) {
+            sink.writeBoth(correlation, request, response);
+        }
+    }
+
+    /**
+     * Request filters wrap the processed request, Logbook wrappers are unwrapped to find the sampling decision.
+     * Requests wrapped by other wrappers are treated as sampled.
+     */
+    private static boolean isUnsampled(HttpRequest request) {
+        HttpRequest current = request;
+        while (current instanceof ForwardingHttpRequest forwarding) {
+            if (current instanceof UnsampledRequest) {
+                return true;
+            }
+            current = forwarding.delegate();
+        }
+        return false;
+    }
+
+    /**
+     * @return declared body length, -1 if unknown
+     */
+    private static long contentLength(HttpMessage message) {
+        final String contentLength = message.getHeaders().getFirst(CONTENT_LENGTH);
+        if (contentLength == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static byte[] omittedBody(HttpMessage message, long contentLength) {
+        return "<body of %d bytes omitted>".formatted(contentLength).getBytes(message.getCharset());
+    }
+
+    private record UnsampledRequest(HttpRequest delegate) implements ForwardingHttpRequest {
+    }
+
+    /**
+     * Logs the first <code>length</code> bytes of the body, body is copied only if requested as bytes
+     */
+    private record LimitedBodyRequest(HttpRequest delegate, byte[] body, int length) implements ForwardingHttpRequest {
+
+        private static LimitedBodyRequest omitted(HttpRequest delegate, long contentLength) {
+            final byte[] body = omittedBody(delegate, contentLength);
+            return new LimitedBodyRequest(delegate, body, body.length);
+        }
+
+        @Override
+        public HttpRequest withBody() {
+            return this;
+        }
+
+        @Override
+        public byte[] getBody() {
+            return length == body.length ? body : Arrays.copyOf(body, length);
+        }
+
+        @Override
+        public String getBodyAsString() {
+            return new String(body, 0, length, getCharset());
+        }
+    }
+
+    /**
+     * Logs the first <code>length</code> bytes of the body, body is copied only if requested as bytes
+     */
+    private record LimitedBodyResponse(HttpResponse delegate, byte[] body, int length) implements ForwardingHttpResponse {
+
+        private static LimitedBodyResponse omitted(HttpResponse delegate, long contentLength) {
+            final byte[] body = omittedBody(delegate, contentLength);
+            return new LimitedBodyResponse(delegate, body, body.length);
+        }
+
+        @Override
+        public HttpResponse withBody() {
+            return this;
+        }
+
+        @Override
+        public byte[] getBody() {
+            return length == body.length ? body : Arrays.copyOf(body, length);
+        }
+
+        @Override
+        public String getBodyAsString() {
+            return new String(body, 0, length, getCharset());
+        }
+    }
+
+    /**
+     * Allows up to <code>perSecond</code> samples in every one second window
+     */
+    private static final class RateLimiter implements BooleanSupplier {
+
+        private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        private final int perSecond;
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private final AtomicInteger windowCount = new AtomicInteger();
+
+        private RateLimiter(int perSecond) {
+            this.perSecond = perSecond;
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            final long now = System.nanoTime();
+            final long start = windowStart.get();
+            if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+                windowCount.set(0);
+            }
+            return windowCount.incrementAndGet() <= perSecond;
+        }
+    }
+}
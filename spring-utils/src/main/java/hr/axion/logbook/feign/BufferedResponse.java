@@ -0,0 +1,37 @@
+package hr.axion.logbook.feign;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Response read to memory, can be turned into a new {@link Response} any number of times
+ */
+record BufferedResponse(int status, String reason, Map<String, Collection<String>> headers, byte[] body) {
+
+    /**
+     * Reads and closes the response
+     */
+    static BufferedResponse of(Response response) throws IOException {
+        final byte[] body;
+        try (response; InputStream inputStream = response.body() == null ? null : response.body().asInputStream()) {
+            body = inputStream == null ? new byte[0] : Util.toByteArray(inputStream);
+        }
+        return new BufferedResponse(response.status(), response.reason(), response.headers(), body);
+    }
+
+    Response toResponse(Request request) {
+        return Response.builder()
+                .status(status)
+                .reason(reason)
+                .headers(headers)
+                .body(body)
+                .request(request)
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package hr.axion.logbook.feign;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Time to live of cached responses of a GET API method, used when response cache is enabled with
+ * {@link CustomFeignClient.Builder#responseCache(int, java.time.Duration)}
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheTtl {
+
+    long value();
+
+    ChronoUnit unit() default ChronoUnit.SECONDS;
+}
@@ -0,0 +1,235 @@
+package hr.axion.logbook.feign;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feign {@link Client} caching successful (200) responses of GET requests in memory.<br/>
+ * Response is cached for:
+ * <ol>
+ *     <li>method TTL - {@link CacheTtl} annotation or TTL configured per Feign config key</li>
+ *     <li>Cache-Control <code>max-age</code> of the response</li>
+ *     <li>default TTL</li>
+ * </ol>
+ * Responses with Cache-Control <code>no-store</code> or <code>private</code> or with <code>Vary: *</code> aren't
+ * cached, <code>no-cache</code> responses are always revalidated. Expired responses with ETag are revalidated with
+ * <code>If-None-Match</code> and reused when server returns 304.<br/>
+ * Cache key is the URL with values of the key headers ({@link #DEFAULT_KEY_HEADERS} by default), cached response
+ * is reused only for requests with the same values of the headers listed in its <code>Vary</code> header.
+ * Cache is shared by all callers of the client, requests with credential headers which aren't key headers
+ * (e.g. <code>X-Api-Key</code>) bypass the cache.<br/>
+ * Cache is bounded to <code>maxEntries</code>, least recently used entries are evicted.
+ */
+public class CachingClient implements Client {
+
+    public static final List<String> DEFAULT_KEY_HEADERS = RequestKeys.DEFAULT_KEY_HEADERS;
+
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String VARY = "Vary";
+    private static final String ETAG = "ETag";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final int OK = 200;
+    private static final int NOT_MODIFIED = 304;
+
+    private final Client delegate;
+    private final Duration defaultTtl;
+    private final Map<String, Duration> methodTtls;
+    private final Map<String, Optional<Duration>> resolvedMethodTtls = new ConcurrentHashMap<>();
+    private final List<String> keyHeaders;
+    private final Set<String> keyHeaderSet;
+    private final Map<String, CachedResponse> cache;
+
+    public CachingClient(Client delegate, int maxEntries, Duration defaultTtl, Map<String, Duration> methodTtls) {
+        this(delegate, maxEntries, defaultTtl, methodTtls, DEFAULT_KEY_HEADERS);
+    }
+
+    /**
+     * @param defaultTtl TTL of responses without method TTL and max-age, {@link Duration#ZERO} to cache only
+     *                   responses with ETag (always revalidated)
+     * @param methodTtls TTLs by Feign config key, see {@link feign.Feign#configKey(Class, java.lang.reflect.Method)}
+     * @param keyHeaders request headers which values are part of the cache key
+     */
+    public CachingClient(Client delegate, int maxEntries, Duration defaultTtl, Map<String, Duration> methodTtls,
+                         List<String> keyHeaders) {
+        this.delegate = delegate;
+        this.defaultTtl = defaultTtl;
+        this.methodTtls = Map.copyOf(methodTtls);
+        this.keyHeaders = List.copyOf(keyHeaders);
+        this.keyHeaderSet = RequestKeys.caseInsensitiveSet(keyHeaders);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (request.httpMethod() != Request.HttpMethod.GET
+                || RequestKeys.hasUnkeyedCredentials(request, keyHeaderSet)) {
+            return delegate.execute(request, options);
+        }
+        final String key = RequestKeys.key(request, keyHeaders);
+        final CachedResponse cached = Optional.ofNullable(cache.get(key))
+                .filter(entry -> entry.matches(request))
+                .orElse(null);
+        if (cached != null && cached.isFresh(System.nanoTime())) {
+            return cached.toResponse(request);
+        }
+        final Request sentRequest = cached != null && cached.etag() != null ? withIfNoneMatch(request, cached.etag()) : request;
+        final Response response = delegate.execute(sentRequest, options);
+        final Duration methodTtl = methodTtl(request).orElse(null);
+        if (response.status() == NOT_MODIFIED && cached != null) {
+            response.close();
+            final CachedResponse refreshed = cached.withExpiresAt(expiresAt(methodTtl, cached.response().headers()));
+            cache.put(key, refreshed);
+            return refreshed.toResponse(request);
+        }
+        if (response.status() != OK || !isStorable(response)) {
+            return response;
+        }
+        final String etag = RequestKeys.firstHeader(response.headers(), ETAG);
+        final long expiresAt = expiresAt(methodTtl, response.headers());
+        if (expiresAt - System.nanoTime() <= 0 && etag == null) {
+            return response;
+        }
+        final Map<String, Collection<String>> varyValues = varyValues(request, vary(response.headers()));
+        final CachedResponse entry = new CachedResponse(BufferedResponse.of(response), etag, expiresAt, varyValues);
+        cache.put(key, entry);
+        return entry.toResponse(request);
+    }
+
+    public void evictAll() {
+        cache.clear();
+    }
+
+    private Optional<Duration> methodTtl(Request request) {
+        final MethodMetadata methodMetadata = request.requestTemplate() == null ? null
+                : request.requestTemplate().methodMetadata();
+        if (methodMetadata == null) {
+            return Optional.empty();
+        }
+        return resolvedMethodTtls.computeIfAbsent(methodMetadata.configKey(), configKey -> {
+            if (methodTtls.containsKey(configKey)) {
+                return Optional.of(methodTtls.get(configKey));
+            }
+            final CacheTtl cacheTtl = methodMetadata.method() == null ? null
+                    : methodMetadata.method().getAnnotation(CacheTtl.class);
+            return Optional.ofNullable(cacheTtl).map(ttl -> Duration.of(ttl.value(), ttl.unit()));
+        });
+    }
+
+    private static boolean isStorable(Response response) {
+        final List<String> cacheControl = cacheControl(response.headers());
+        // private="field" also marks the response as private
+        return !cacheControl.contains("no-store")
+                && cacheControl.stream().noneMatch(directive -> directive.startsWith("private"))
+                && !vary(response.headers()).contains("*");
+    }
+
+    private static List<String> vary(Map<String, Collection<String>> headers) {
+        final Collection<String> vary = RequestKeys.headerValues(headers, VARY);
+        if (vary == null) {
+            return List.of();
+        }
+        return vary.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .toList();
+    }
+
+    /**
+     * @return request values of the headers listed in response Vary header, missing headers have empty values
+     */
+    private static Map<String, Collection<String>> varyValues(Request request, List<String> varyHeaders) {
+        final Map<String, Collection<String>> values = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String header : varyHeaders) {
+            final Collection<String> headerValues = RequestKeys.headerValues(request.headers(), header);
+            values.put(header, headerValues == null ? List.of() : new ArrayList<>(headerValues));
+        }
+        return values;
+    }
+
+    private long expiresAt(Duration methodTtl, Map<String, Collection<String>> headers) {
+        final List<String> cacheControl = cacheControl(headers);
+        Duration ttl = methodTtl;
+        if (ttl == null) {
+            ttl = cacheControl.stream()
+                    .filter(directive -> directive.startsWith("max-age="))
+                    .findFirst()
+                    .map(directive -> parseSeconds(directive.substring("max-age=".length())))
+                    .orElse(defaultTtl);
+        }
+        if (cacheControl.contains("no-cache")) {
+            ttl = Duration.ZERO;
+        }
+        return System.nanoTime() + ttl.toNanos();
+    }
+
+    private Duration parseSeconds(String seconds) {
+        try {
+            return Duration.ofSeconds(Long.parseLong(seconds.trim()));
+        } catch (NumberFormatException e) {
+            return defaultTtl;
+        }
+    }
+
+    private static List<String> cacheControl(Map<String, Collection<String>> headers) {
+        final String cacheControl = RequestKeys.firstHeader(headers, CACHE_CONTROL);
+        if (cacheControl == null) {
+            return List.of();
+        }
+        return List.of(cacheControl.toLowerCase(Locale.ROOT).replace(" ", "").split(","));
+    }
+
+    private static Request withIfNoneMatch(Request request, String etag) {
+        final Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(request.headers());
+        headers.put(IF_NONE_MATCH, List.of(etag));
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(),
+                request.requestTemplate());
+    }
+
+    /**
+     * @param varyValues request values of the headers listed in response Vary header
+     */
+    private record CachedResponse(BufferedResponse response, String etag, long expiresAt,
+                                  Map<String, Collection<String>> varyValues) {
+
+        private boolean isFresh(long now) {
+            return now - expiresAt < 0;
+        }
+
+        private boolean matches(Request request) {
+            return varyValues.isEmpty() || varyValues.equals(CachingClient.varyValues(request,
+                    List.copyOf(varyValues.keySet())));
+        }
+
+        private CachedResponse withExpiresAt(long expiresAt) {
+            return new CachedResponse(response, etag, expiresAt, varyValues);
+        }
+
+        private Response toResponse(Request request) {
+            return response.toResponse(request);
+        }
+    }
+}
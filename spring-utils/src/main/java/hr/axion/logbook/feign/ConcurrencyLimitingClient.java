@@ -0,0 +1,116 @@
+package hr.axion.logbook.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import hr.axion.logbook.feign.exceptions.ConcurrencyLimitExceededException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feign {@link Client} limiting concurrent requests per target host with an adaptive (AIMD) limit:
+ * <ul>
+ *     <li>limit grows by <code>1 / limit</code> for every successful request while at least half of it is used</li>
+ *     <li>limit is multiplied by {@link Limits#backoffRatio()} when the host is overloaded -
+ *     I/O error (e.g. timeout), 429 or 503 response</li>
+ * </ul>
+ * Requests over the limit fail immediately with {@link ConcurrencyLimitExceededException}, instead of waiting
+ * for a slow host.
+ */
+public class ConcurrencyLimitingClient implements Client {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    /**
+     * @param initialLimit starting concurrency limit
+     * @param minLimit     limit never goes below it
+     * @param maxLimit     limit never goes above it
+     * @param backoffRatio limit multiplier on overload, 0 - 1
+     */
+    public record Limits(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+
+        public Limits {
+            if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit");
+            }
+            if (backoffRatio <= 0 || backoffRatio >= 1) {
+                throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+            }
+        }
+
+        public Limits(int initialLimit, int minLimit, int maxLimit) {
+            this(initialLimit, minLimit, maxLimit, 0.9);
+        }
+    }
+
+    private final Client delegate;
+    private final Limits limits;
+    private final Map<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitingClient(Client delegate, Limits limits) {
+        this.delegate = delegate;
+        this.limits = limits;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        final String host = URI.create(request.url()).getAuthority();
+        final HostLimiter limiter = hostLimiters.computeIfAbsent(host == null ? "" : host, key -> new HostLimiter(limits));
+        if (!limiter.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException("Concurrency limit %d of host [%s] exceeded"
+                    .formatted(limiter.getLimit(), host));
+        }
+        boolean overloaded = true;
+        try {
+            final Response response = delegate.execute(request, options);
+            overloaded = response.status() == TOO_MANY_REQUESTS || response.status() == SERVICE_UNAVAILABLE;
+            return response;
+        } finally {
+            limiter.release(overloaded);
+        }
+    }
+
+    /**
+     * @return current limit of the host (<code>host:port</code> if port is in the URL)
+     */
+    public int getLimit(String host) {
+        final HostLimiter limiter = hostLimiters.get(host);
+        return limiter == null ? limits.initialLimit() : limiter.getLimit();
+    }
+
+    private static final class HostLimiter {
+        private final Limits limits;
+        private double limit;
+        private int inFlight;
+
+        private HostLimiter(Limits limits) {
+            this.limits = limits;
+            this.limit = limits.initialLimit();
+        }
+
+        private synchronized boolean tryAcquire() {
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        private synchronized void release(boolean overloaded) {
+            if (overloaded) {
+                limit = Math.max(limits.minLimit(), limit * limits.backoffRatio());
+            } else if (inFlight * 2 >= limit) {
+                limit = Math.min(limits.maxLimit(), limit + 1 / limit);
+            }
+            inFlight--;
+        }
+
+        private synchronized int getLimit() {
+            return (int) limit;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package hr.axion.logbook.feign;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers shared {@link CustomFeignInfrastructure}, configured with <code>feign.infrastructure.*</code> properties
+ */
+@AutoConfiguration
+@ConditionalOnClass(name = {"feign.Feign", "okhttp3.OkHttpClient", "org.zalando.logbook.okhttp.LogbookInterceptor"})
+@ConditionalOnProperty(value = "feign.infrastructure.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(CustomFeignProperties.class)
+public class CustomFeignAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CustomFeignInfrastructure customFeignInfrastructure(final CustomFeignProperties customFeignProperties) {
+        return CustomFeignInfrastructure.create(customFeignProperties);
+    }
+
+    /**
+     * Shared connection pool metrics, bound to meter registries as {@link io.micrometer.core.instrument.binder.MeterBinder}
+     * (clients using the shared pool don't bind it again)
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics")
+    static class ConnectionPoolMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(name = "customFeignConnectionPoolMetrics")
+        public OkHttpConnectionPoolMetrics customFeignConnectionPoolMetrics(
+                final CustomFeignInfrastructure customFeignInfrastructure) {
+            return new OkHttpConnectionPoolMetrics(customFeignInfrastructure.getOkHttpClient().connectionPool(),
+                    "okhttp.pool", Tags.of("client", "shared"));
+        }
+    }
+}
@@ -1,36 +1,54 @@
 package hr.axion.logbook.feign;
 
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.BaseBuilder;
+import feign.Client;
 import feign.Contract;
 import feign.Feign;
+import feign.Request;
 import feign.RequestInterceptor;
+import feign.Retryer;
 import feign.codec.Decoder;
 import feign.codec.Encoder;
 import feign.codec.ErrorDecoder;
 import feign.okhttp.OkHttpClient;
+import hr.axion.concurrent.VirtualThreads;
+import hr.axion.logbook.AsyncHttpLogWriter;
+import hr.axion.logbook.LogbookMetrics;
+import hr.axion.logbook.LogbookUtils;
+import hr.axion.logbook.SamplingStrategy;
 import hr.axion.logbook.feign.exceptions.CustomFeignConfigurationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Protocol;
 import org.zalando.logbook.*;
 import org.zalando.logbook.core.DefaultSink;
 import org.zalando.logbook.core.SplunkHttpLogFormatter;
 import org.zalando.logbook.okhttp.GzipInterceptor;
 import org.zalando.logbook.okhttp.LogbookInterceptor;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import static hr.axion.logbook.CustomLogbookConditions.include;
 import static org.zalando.logbook.core.Conditions.exclude;
-import static org.zalando.logbook.core.HeaderFilters.replaceHeaders;
 
 /**
  * Custom Feign client builder that allows to configure logbook and other feign properties.
@@ -48,12 +66,42 @@ public class CustomFeignClient<T> {
     private final Optional<ErrorDecoder> errorDecoder;
     private final List<RequestInterceptor> requestInterceptors;
     private final List<String> headersToMask;
+    private final List<String> queryParametersToMask;
     private final List<QueryFilter> queryFilters;
     private final List<HeaderFilter> headerFilters;
     private final Optional<Boolean> avoidSslVerification;
     private final List<Predicate> excludeConditions;
     private final List<Predicate> includeConditions;
     private final CorrelationId correlationId;
+    private final Optional<ConnectionPool> connectionPool;
+    private final Optional<RequestLimitingClient.Limiter> requestLimiter;
+    private final Optional<Integer> maxRequests;
+    private final Optional<Integer> maxRequestsPerHost;
+    private final Optional<Duration> connectTimeout;
+    private final Optional<Duration> readTimeout;
+    private final Optional<Duration> writeTimeout;
+    private final Optional<Duration> callTimeout;
+    private final Optional<List<Protocol>> protocols;
+    private final boolean retryOnConnectionFailure;
+    private final Optional<HttpLogWriter> logWriter;
+    private final Optional<Double> sampleProbability;
+    private final Optional<Integer> samplesPerSecond;
+    private final Optional<Integer> maxBodySize;
+    private final Optional<MeterRegistry> meterRegistry;
+    private final Optional<String> metricsClientName;
+    private final Optional<Integer> responseCacheMaxEntries;
+    private final Optional<Duration> responseCacheTtl;
+    private final List<String> responseCacheKeyHeaders;
+    private final Map<String, Duration> cacheTtls;
+    private final Optional<Cache> diskCache;
+    private final Optional<Retryer> retryer;
+    private final Optional<Double> hedgingPercentile;
+    private final Optional<Duration> hedgingMinDelay;
+    private final Optional<Executor> hedgingExecutor;
+    private final Optional<ConcurrencyLimitingClient.Limits> concurrencyLimits;
+    private final Optional<ExecutorService> asyncExecutor;
+    private final Optional<List<String>> singleFlightKeyHeaders;
+    private final Optional<CustomFeignInfrastructure> infrastructure;
 
     private CustomFeignClient(Class<T> apiType,
                               String baseApiUrl,
@@ -63,12 +111,42 @@ public class CustomFeignClient<T> {
                               Optional<ErrorDecoder> errorDecoder,
                               List<RequestInterceptor> requestInterceptors,
                               List<String> headersToMask,
+                              List<String> queryParametersToMask,
                               List<QueryFilter> queryFilters,
                               List<HeaderFilter> headerFilters,
                               Optional<Boolean> avoidSslVerification,
                               List<Predicate> excludeConditions,
                               List<Predicate> includeConditions,
-                              CorrelationId correlationId) {
+                              CorrelationId correlationId,
+                              Optional<ConnectionPool> connectionPool,
+                              Optional<RequestLimitingClient.Limiter> requestLimiter,
+                              Optional<Integer> maxRequests,
+                              Optional<Integer> maxRequestsPerHost,
+                              Optional<Duration> connectTimeout,
+                              Optional<Duration> readTimeout,
+                              Optional<Duration> writeTimeout,
+                              Optional<Duration> callTimeout,
+                              Optional<List<Protocol>> protocols,
+                              boolean retryOnConnectionFailure,
+                              Optional<HttpLogWriter> logWriter,
+                              Optional<Double> sampleProbability,
+                              Optional<Integer> samplesPerSecond,
+                              Optional<Integer> maxBodySize,
+                              Optional<MeterRegistry> meterRegistry,
+                              Optional<String> metricsClientName,
+                              Optional<Integer> responseCacheMaxEntries,
+                              Optional<Duration> responseCacheTtl,
+                              List<String> responseCacheKeyHeaders,
+                              Map<String, Duration> cacheTtls,
+                              Optional<Cache> diskCache,
+                              Optional<Retryer> retryer,
+                              Optional<Double> hedgingPercentile,
+                              Optional<Duration> hedgingMinDelay,
+                              Optional<Executor> hedgingExecutor,
+                              Optional<ConcurrencyLimitingClient.Limits> concurrencyLimits,
+                              Optional<ExecutorService> asyncExecutor,
+                              Optional<List<String>> singleFlightKeyHeaders,
+                              Optional<CustomFeignInfrastructure> infrastructure) {
         this.apiType = apiType;
         this.baseApiUrl = baseApiUrl;
         this.encoder = encoder;
@@ -77,12 +155,42 @@ public class CustomFeignClient<T> {
         this.errorDecoder = errorDecoder;
         this.requestInterceptors = requestInterceptors;
         this.headersToMask = headersToMask;
+        this.queryParametersToMask = queryParametersToMask;
         this.queryFilters = queryFilters;
         this.headerFilters = headerFilters;
         this.avoidSslVerification = avoidSslVerification;
         this.excludeConditions = excludeConditions;
         this.includeConditions = includeConditions;
         this.correlationId = correlationId;
+        this.connectionPool = connectionPool;
+        this.requestLimiter = requestLimiter;
+        this.maxRequests = maxRequests;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.writeTimeout = writeTimeout;
+        this.callTimeout = callTimeout;
+        this.protocols = protocols;
+        this.retryOnConnectionFailure = retryOnConnectionFailure;
+        this.logWriter = logWriter;
+        this.sampleProbability = sampleProbability;
+        this.samplesPerSecond = samplesPerSecond;
+        this.maxBodySize = maxBodySize;
+        this.meterRegistry = meterRegistry;
+        this.metricsClientName = metricsClientName;
+        this.responseCacheMaxEntries = responseCacheMaxEntries;
+        this.responseCacheTtl = responseCacheTtl;
+        this.responseCacheKeyHeaders = responseCacheKeyHeaders;
+        this.cacheTtls = cacheTtls;
+        this.diskCache = diskCache;
+        this.retryer = retryer;
+        this.hedgingPercentile = hedgingPercentile;
+        this.hedgingMinDelay = hedgingMinDelay;
+        this.hedgingExecutor = hedgingExecutor;
+        this.concurrencyLimits = concurrencyLimits;
+        this.asyncExecutor = asyncExecutor;
+        this.singleFlightKeyHeaders = singleFlightKeyHeaders;
+        this.infrastructure = infrastructure;
     }
 
     public Class<T> getApiType() {
@@ -117,6 +225,10 @@ public class CustomFeignClient<T> {
         return headersToMask;
     }
 
+    public List<String> getQueryParametersToMask() {
+        return queryParametersToMask;
+    }
+
     public List<QueryFilter> getQueryFilters() {
         return queryFilters;
     }
@@ -141,6 +253,152 @@ public class CustomFeignClient<T> {
         return correlationId;
     }
 
+    public Optional<ConnectionPool> getConnectionPool() {
+        return connectionPool;
+    }
+
+    public Optional<RequestLimitingClient.Limiter> getRequestLimiter() {
+        return requestLimiter;
+    }
+
+    public Optional<Integer> getMaxRequests() {
+        return maxRequests;
+    }
+
+    public Optional<Integer> getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public Optional<Duration> getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Optional<Duration> getReadTimeout() {
+        return readTimeout;
+    }
+
+    public Optional<Duration> getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public Optional<Duration> getCallTimeout() {
+        return callTimeout;
+    }
+
+    public Optional<List<Protocol>> getProtocols() {
+        return protocols;
+    }
+
+    public boolean isRetryOnConnectionFailure() {
+        return retryOnConnectionFailure;
+    }
+
+    public Optional<HttpLogWriter> getLogWriter() {
+        return logWriter;
+    }
+
+    public Optional<Double> getSampleProbability() {
+        return sampleProbability;
+    }
+
+    public Optional<Integer> getSamplesPerSecond() {
+        return samplesPerSecond;
+    }
+
+    public Optional<Integer> getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public Optional<MeterRegistry> getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    public Optional<String> getMetricsClientName() {
+        return metricsClientName;
+    }
+
+    public Optional<Integer> getResponseCacheMaxEntries() {
+        return responseCacheMaxEntries;
+    }
+
+    public Optional<Duration> getResponseCacheTtl() {
+        return responseCacheTtl;
+    }
+
+    public List<String> getResponseCacheKeyHeaders() {
+        return responseCacheKeyHeaders;
+    }
+
+    public Map<String, Duration> getCacheTtls() {
+        return cacheTtls;
+    }
+
+    public Optional<Cache> getDiskCache() {
+        return diskCache;
+    }
+
+    public Optional<Retryer> getRetryer() {
+        return retryer;
+    }
+
+    public Optional<Double> getHedgingPercentile() {
+        return hedgingPercentile;
+    }
+
+    public Optional<Duration> getHedgingMinDelay() {
+        return hedgingMinDelay;
+    }
+
+    public Optional<Executor> getHedgingExecutor() {
+        return hedgingExecutor;
+    }
+
+    public Optional<ConcurrencyLimitingClient.Limits> getConcurrencyLimits() {
+        return concurrencyLimits;
+    }
+
+    public Optional<ExecutorService> getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    public Optional<List<String>> getSingleFlightKeyHeaders() {
+        return singleFlightKeyHeaders;
+    }
+
+    public Optional<CustomFeignInfrastructure> getInfrastructure() {
+        return infrastructure;
+    }
+
+    /**
+     * @return writer logging HTTP messages synchronously with info level, used if no other writer is set
+     */
+    public static HttpLogWriter defaultLogWriter() {
+        return new HttpLogWriter() {
+            @Override
+            public void write(@NotNull Precorrelation precorrelation, @NotNull String request) {
+                log.info(request);
+            }
+
+            @Override
+            public void write(@NotNull Correlation correlation, @NotNull String response) {
+                log.info(response);
+            }
+        };
+    }
+
+    /**
+     * Executor starting a virtual thread per task (daemon thread pool before Java 21), shared by all clients and
+     * used by default for {@link Builder#buildAsync()} calls. Use it to run blocking client calls in parallel, e.g.
+     * <pre>
+     * CompletableFuture&lt;Currency&gt; currency = CompletableFuture.supplyAsync(() -&gt; currencyApi.getCurrency(code),
+     *         CustomFeignClient.virtualThreadExecutor());
+     * </pre>
+     * Executor is created on first use and lives as long as the application, don't shut it down.
+     */
+    public static ExecutorService virtualThreadExecutor() {
+        return DefaultExecutors.CALLS;
+    }
+
     public static <T> Builder<T> builder(Class<T> apiType) {
         return new Builder<>(apiType);
     }
@@ -148,6 +406,9 @@ public class CustomFeignClient<T> {
     public static class Builder<T> {
 
         private static final String DATA_MASK = "********";
+        // Feign Request.Options defaults, OkHttp client uses the same so Feign doesn't rebuild it per request
+        private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+        private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(60);
 
         private final Class<T> apiType;
         private String baseApiUrl;
@@ -157,12 +418,42 @@ public class CustomFeignClient<T> {
         private Optional<ErrorDecoder> errorDecoder = Optional.empty();
         private List<RequestInterceptor> requestInterceptors = new ArrayList<>();
         private List<String> headersToMask = new ArrayList<>();
+        private List<String> queryParametersToMask = new ArrayList<>();
         private List<QueryFilter> queryFilters = new ArrayList<>();
         private List<HeaderFilter> headerFilters = new ArrayList<>();
         private Optional<Boolean> avoidSslVerification = Optional.empty();
         private List<Predicate> excludeConditions = new ArrayList<>();
         private List<Predicate> includeConditions = new ArrayList<>();
         private CorrelationId correlationId;
+        private Optional<ConnectionPool> connectionPool = Optional.empty();
+        private Optional<RequestLimitingClient.Limiter> requestLimiter = Optional.empty();
+        private Optional<Integer> maxRequests = Optional.empty();
+        private Optional<Integer> maxRequestsPerHost = Optional.empty();
+        private Optional<Duration> connectTimeout = Optional.empty();
+        private Optional<Duration> readTimeout = Optional.empty();
+        private Optional<Duration> writeTimeout = Optional.empty();
+        private Optional<Duration> callTimeout = Optional.empty();
+        private Optional<List<Protocol>> protocols = Optional.empty();
+        private boolean retryOnConnectionFailure = false;
+        private Optional<HttpLogWriter> logWriter = Optional.empty();
+        private Optional<Double> sampleProbability = Optional.empty();
+        private Optional<Integer> samplesPerSecond = Optional.empty();
+        private Optional<Integer> maxBodySize = Optional.empty();
+        private Optional<MeterRegistry> meterRegistry = Optional.empty();
+        private Optional<String> metricsClientName = Optional.empty();
+        private Optional<Integer> responseCacheMaxEntries = Optional.empty();
+        private Optional<Duration> responseCacheTtl = Optional.empty();
+        private List<String> responseCacheKeyHeaders = CachingClient.DEFAULT_KEY_HEADERS;
+        private Map<String, Duration> cacheTtls = new HashMap<>();
+        private Optional<Cache> diskCache = Optional.empty();
+        private Optional<Retryer> retryer = Optional.empty();
+        private Optional<Double> hedgingPercentile = Optional.empty();
+        private Optional<Duration> hedgingMinDelay = Optional.empty();
+        private Optional<Executor> hedgingExecutor = Optional.empty();
+        private Optional<ConcurrencyLimitingClient.Limits> concurrencyLimits = Optional.empty();
+        private Optional<ExecutorService> asyncExecutor = Optional.empty();
+        private Optional<List<String>> singleFlightKeyHeaders = Optional.empty();
+        private Optional<CustomFeignInfrastructure> infrastructure = Optional.empty();
 
         public Builder(Class<T> apiType) {
             this.apiType = apiType;
@@ -213,6 +504,16 @@ public class CustomFeignClient<T> {
             return this;
         }
 
+        public Builder<T> addQueryParameterToMask(String parameter) {
+            this.queryParametersToMask.add(parameter);
+            return this;
+        }
+
+        public Builder<T> addQueryParametersToMask(List<String> parameters) {
+            this.queryParametersToMask.addAll(parameters);
+            return this;
+        }
+
         public Builder<T> addQueryFilter(QueryFilter queryFilter) {
             this.queryFilters.add(queryFilter);
             return this;
@@ -263,8 +564,293 @@ public class CustomFeignClient<T> {
             return this;
         }
 
+        /**
+         * @param connectionPool pool shared with other clients, by default every client has its own pool
+         */
+        public Builder<T> connectionPool(ConnectionPool connectionPool) {
+            this.connectionPool = Optional.ofNullable(connectionPool);
+            return this;
+        }
+
+        /**
+         * Creates a pool for this client only
+         */
+        public Builder<T> connectionPool(int maxIdleConnections, Duration keepAliveDuration) {
+            this.connectionPool = Optional.of(new ConnectionPool(maxIdleConnections, keepAliveDuration.toMillis(),
+                    TimeUnit.MILLISECONDS));
+            return this;
+        }
+
+        /**
+         * @param requestLimiter concurrent request limits shared with other clients, can't be combined with
+         *                       {@link #maxRequests(int)} and {@link #maxRequestsPerHost(int)}
+         */
+        public Builder<T> requestLimiter(RequestLimitingClient.Limiter requestLimiter) {
+            this.requestLimiter = Optional.ofNullable(requestLimiter);
+            return this;
+        }
+
+        /**
+         * Max concurrent requests of this client, requests over the limit wait, see {@link RequestLimitingClient}.
+         * Not limited by default.
+         */
+        public Builder<T> maxRequests(int maxRequests) {
+            this.maxRequests = Optional.of(maxRequests);
+            return this;
+        }
+
+        /**
+         * Max concurrent requests per host of this client, requests over the limit wait,
+         * see {@link RequestLimitingClient}. Not limited by default.
+         */
+        public Builder<T> maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = Optional.of(maxRequestsPerHost);
+            return this;
+        }
+
+        /**
+         * Default is 10 seconds
+         */
+        public Builder<T> connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = Optional.of(connectTimeout);
+            return this;
+        }
+
+        /**
+         * Default is 60 seconds
+         */
+        public Builder<T> readTimeout(Duration readTimeout) {
+            this.readTimeout = Optional.of(readTimeout);
+            return this;
+        }
+
+        public Builder<T> writeTimeout(Duration writeTimeout) {
+            this.writeTimeout = Optional.of(writeTimeout);
+            return this;
+        }
+
+        /**
+         * Timeout of the whole call (connect, write, server processing, read), not set by default
+         */
+        public Builder<T> callTimeout(Duration callTimeout) {
+            this.callTimeout = Optional.of(callTimeout);
+            return this;
+        }
+
+        /**
+         * @param preferHttp2 true to use HTTP/2 when server supports it (negotiated over TLS, OkHttp default),
+         *                    false to use HTTP/1.1 only
+         */
+        public Builder<T> preferHttp2(boolean preferHttp2) {
+            this.protocols = Optional.of(preferHttp2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                    : List.of(Protocol.HTTP_1_1));
+            return this;
+        }
+
+        /**
+         * Retry requests on connection failure (e.g. stale pooled connection), disabled by default
+         */
+        public Builder<T> retryOnConnectionFailure(boolean retryOnConnectionFailure) {
+            this.retryOnConnectionFailure = retryOnConnectionFailure;
+            return this;
+        }
+
+        /**
+         * @param logWriter writer of formatted HTTP messages, e.g. {@link AsyncHttpLogWriter} shared by all clients.
+         *                  Writer is owned by the caller, close {@link AsyncHttpLogWriter} on shutdown
+         *                  (or use {@link #infrastructure(CustomFeignInfrastructure)}, which closes its writer)
+         */
+        public Builder<T> logWriter(HttpLogWriter logWriter) {
+            this.logWriter = Optional.ofNullable(logWriter);
+            return this;
+        }
+
+        /**
+         * Logs only given part of exchanges (0 - 1), error responses are always logged, see {@link SamplingStrategy}
+         */
+        public Builder<T> sampleProbability(double sampleProbability) {
+            this.sampleProbability = Optional.of(sampleProbability);
+            return this;
+        }
+
+        /**
+         * Logs at most given number of exchanges per second, error responses are always logged,
+         * see {@link SamplingStrategy}
+         */
+        public Builder<T> samplesPerSecond(int samplesPerSecond) {
+            this.samplesPerSecond = Optional.of(samplesPerSecond);
+            return this;
+        }
+
+        /**
+         * Logged bodies are truncated to the first given number of bytes, see {@link SamplingStrategy}
+         */
+        public Builder<T> maxBodySize(int maxBodySize) {
+            this.maxBodySize = Optional.of(maxBodySize);
+            return this;
+        }
+
+        /**
+         * Records client metrics (see {@link MeteredClient}), OkHttp connection pool usage and
+         * Logbook formatting/writing time, tagged with <code>client</code> (fully qualified API type name)
+         */
+        public Builder<T> meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = Optional.ofNullable(meterRegistry);
+            return this;
+        }
+
+        /**
+         * Same as {@link #meterRegistry(MeterRegistry)}, with a custom <code>client</code> tag.
+         * Clients of the same API type registered in one registry need different names, meters with the same
+         * tags are shared and only the first client's in-flight requests and pool would be reported.
+         */
+        public Builder<T> meterRegistry(MeterRegistry meterRegistry, String clientName) {
+            this.meterRegistry = Optional.ofNullable(meterRegistry);
+            this.metricsClientName = Optional.ofNullable(clientName);
+            return this;
+        }
+
+        /**
+         * Caches GET responses in memory, see {@link CachingClient}
+         *
+         * @param defaultTtl TTL of responses without method TTL ({@link CacheTtl}, {@link #cacheTtl(String, Duration)})
+         *                   and Cache-Control max-age
+         */
+        public Builder<T> responseCache(int maxEntries, Duration defaultTtl) {
+            this.responseCacheMaxEntries = Optional.of(maxEntries);
+            this.responseCacheTtl = Optional.of(defaultTtl);
+            return this;
+        }
+
+        /**
+         * @param keyHeaders request headers which values are part of the response cache key, default is
+         *                   {@link CachingClient#DEFAULT_KEY_HEADERS}. Requests with credential headers
+         *                   (e.g. <code>X-Api-Key</code>) which aren't key headers bypass the cache.
+         */
+        public Builder<T> responseCacheKeyHeaders(List<String> keyHeaders) {
+            this.responseCacheKeyHeaders = List.copyOf(keyHeaders);
+            return this;
+        }
+
+        /**
+         * @param configKey Feign config key of the API method, e.g. <code>CurrencyApi#getCurrencies()</code>,
+         *                  see {@link Feign#configKey(Class, java.lang.reflect.Method)}
+         */
+        public Builder<T> cacheTtl(String configKey, Duration ttl) {
+            this.cacheTtls.put(configKey, ttl);
+            return this;
+        }
+
+        /**
+         * HTTP cache of OkHttp (follows response cache headers), a cache directory can be used by one cache only,
+         * share the instance between clients
+         */
+        public Builder<T> diskCache(Cache diskCache) {
+            this.diskCache = Optional.ofNullable(diskCache);
+            return this;
+        }
+
+        /**
+         * Retries of retryable errors (I/O errors, Retry-After responses), Feign default is
+         * {@link Retryer.Default} with 5 attempts
+         */
+        public Builder<T> retryer(Retryer retryer) {
+            this.retryer = Optional.ofNullable(retryer);
+            return this;
+        }
+
+        /**
+         * Retries with exponential backoff (x1.5 per attempt), starting with <code>period</code> up to <code>maxPeriod</code>
+         */
+        public Builder<T> retry(int maxAttempts, Duration period, Duration maxPeriod) {
+            this.retryer = Optional.of(new Retryer.Default(period.toMillis(), maxPeriod.toMillis(), maxAttempts));
+            return this;
+        }
+
+        /**
+         * Sends a second GET request when the first one is slower than the given latency percentile of the method,
+         * see {@link HedgingClient}
+         *
+         * @param percentile e.g. 0.95
+         * @param minDelay   min delay before hedging
+         */
+        public Builder<T> hedging(double percentile, Duration minDelay) {
+            this.hedgingPercentile = Optional.of(percentile);
+            this.hedgingMinDelay = Optional.of(minDelay);
+            return this;
+        }
+
+        /**
+         * @param hedgingExecutor executor running hedged requests, by default a virtual thread executor
+         *                        (daemon threads before Java 21) shared by all clients
+         */
+        public Builder<T> hedgingExecutor(Executor hedgingExecutor) {
+            this.hedgingExecutor = Optional.ofNullable(hedgingExecutor);
+            return this;
+        }
+
+        /**
+         * Adaptive concurrency limit per target host, see {@link ConcurrencyLimitingClient}
+         */
+        public Builder<T> adaptiveConcurrencyLimit(ConcurrencyLimitingClient.Limits concurrencyLimits) {
+            this.concurrencyLimits = Optional.ofNullable(concurrencyLimits);
+            return this;
+        }
+
+        /**
+         * @param asyncExecutor executor running blocking HTTP calls of {@link #buildAsync()} clients, by default
+         *                      {@link CustomFeignClient#virtualThreadExecutor()}
+         */
+        public Builder<T> asyncExecutor(ExecutorService asyncExecutor) {
+            this.asyncExecutor = Optional.ofNullable(asyncExecutor);
+            return this;
+        }
+
+        /**
+         * Concurrent identical GET requests share one call, see {@link SingleFlightClient}. Key headers are
+         * {@link SingleFlightClient#DEFAULT_KEY_HEADERS} (Accept, Accept-Language, Authorization, Cookie)
+         */
+        public Builder<T> singleFlight() {
+            return singleFlight(SingleFlightClient.DEFAULT_KEY_HEADERS);
+        }
+
+        /**
+         * @param keyHeaders headers which values must be equal for requests to share a call. Merged requests get
+         *                   the same response, so every header identifying the user must be a key header; requests
+         *                   with other credential headers (e.g. <code>X-Api-Key</code>) aren't merged
+         */
+        public Builder<T> singleFlight(List<String> keyHeaders) {
+            this.singleFlightKeyHeaders = Optional.of(keyHeaders);
+            return this;
+        }
+
+        /**
+         * Derives the client from shared infrastructure (connection pool, TLS, request limits, Logbook formatter and
+         * writer) instead of creating its own. Client specific options are applied on top of it.
+         */
+        public Builder<T> infrastructure(CustomFeignInfrastructure infrastructure) {
+            this.infrastructure = Optional.ofNullable(infrastructure);
+            return this;
+        }
+
+        /**
+         * Builds blocking Feign client, calls run on the caller thread. Parallel calls can be run on virtual
+         * threads with {@link CustomFeignClient#virtualThreadExecutor()} instead of a platform thread pool.
+         */
         public T build() {
-            CustomFeignClient<T> config = new CustomFeignClient(
+            return createFeignClient(createConfig());
+        }
+
+        /**
+         * Builds {@link AsyncFeign} client, API methods return <code>CompletableFuture</code>. Uses the same
+         * OkHttp/Logbook stack as {@link #build()}, calls run on {@link #asyncExecutor(ExecutorService)}.
+         */
+        public T buildAsync() {
+            return createAsyncFeignClient(createConfig());
+        }
+
+        private CustomFeignClient<T> createConfig() {
+            return new CustomFeignClient<>(
                     apiType,
                     baseApiUrl,
                     encoder,
@@ -273,13 +859,42 @@ public class CustomFeignClient<T> {
                     errorDecoder,
                     requestInterceptors,
                     headersToMask,
+                    queryParametersToMask,
                     queryFilters,
                     headerFilters,
                     avoidSslVerification,
                     excludeConditions,
                     includeConditions,
-                    correlationId);
-            return createFeignClient(config);
+                    correlationId,
+                    connectionPool,
+                    requestLimiter,
+                    maxRequests,
+                    maxRequestsPerHost,
+                    connectTimeout,
+                    readTimeout,
+                    writeTimeout,
+                    callTimeout,
+                    protocols,
+                    retryOnConnectionFailure,
+                    logWriter,
+                    sampleProbability,
+                    samplesPerSecond,
+                    maxBodySize,
+                    meterRegistry,
+                    metricsClientName,
+                    responseCacheMaxEntries,
+                    responseCacheTtl,
+                    responseCacheKeyHeaders,
+                    cacheTtls,
+                    diskCache,
+                    retryer,
+                    hedgingPercentile,
+                    hedgingMinDelay,
+                    hedgingExecutor,
+                    concurrencyLimits,
+                    asyncExecutor,
+                    singleFlightKeyHeaders,
+                    infrastructure);
         }
 
         /**
@@ -289,27 +904,76 @@ public class CustomFeignClient<T> {
          * @return the Feign client
          */
         private T createFeignClient(CustomFeignClient<T> customFeignConfig) {
-            HttpLogWriter logWriter = new HttpLogWriter() {
-                @Override
-                public void write(@NotNull Precorrelation precorrelation, @NotNull String request) {
-                    log.info(request);
-                }
+            Feign.Builder builder = Feign.builder()
+                    .client(createClient(customFeignConfig));
+            configureBuilder(builder, customFeignConfig);
 
-                @Override
-                public void write(@NotNull Correlation correlation, @NotNull String response) {
-                    log.info(response);
-                }
-            };
+            return builder.target(customFeignConfig.getApiType(), customFeignConfig.getBaseApiUrl());
+        }
+
+        /**
+         * Creates an async Feign client with the given configuration.
+         *
+         * @param customFeignConfig the configuration to use
+         * @return the async Feign client
+         */
+        private T createAsyncFeignClient(CustomFeignClient<T> customFeignConfig) {
+            ExecutorService executor = customFeignConfig.getAsyncExecutor().orElse(DefaultExecutors.CALLS);
+            AsyncFeign.AsyncBuilder<Object> builder = AsyncFeign.builder()
+                    .client(new AsyncClient.Default<>(createClient(customFeignConfig), executor));
+            configureBuilder(builder, customFeignConfig);
+
+            return builder.target(customFeignConfig.getApiType(), customFeignConfig.getBaseApiUrl());
+        }
+
+        private <B extends BaseBuilder<B, ?>> void configureBuilder(B builder, CustomFeignClient<T> customFeignConfig) {
+            Duration connectTimeout = connectTimeout(customFeignConfig);
+            Duration readTimeout = readTimeout(customFeignConfig);
+            builder
+                    .encoder(customFeignConfig.getEncoder())
+                    .decoder(customFeignConfig.getDecoder())
+                    .contract(customFeignConfig.getContract())
+                    .options(new Request.Options(connectTimeout.toMillis(), TimeUnit.MILLISECONDS,
+                            readTimeout.toMillis(), TimeUnit.MILLISECONDS, true))
+                    .requestInterceptors(customFeignConfig.getRequestInterceptors());
+
+            customFeignConfig.getErrorDecoder().ifPresent(errorDecoder -> builder.errorDecoder(errorDecoder));
+            customFeignConfig.getRetryer().ifPresent(retryer -> builder.retryer(retryer));
+        }
+
+        /**
+         * Creates OkHttp based Feign client with Logbook and the configured decorators.
+         */
+        private Client createClient(CustomFeignClient<T> customFeignConfig) {
+            Optional<CustomFeignInfrastructure> infrastructure = customFeignConfig.getInfrastructure();
+            HttpLogWriter logWriter = customFeignConfig.getLogWriter()
+                    .orElseGet(() -> infrastructure.map(CustomFeignInfrastructure::getLogWriter)
+                            .orElseGet(CustomFeignClient::defaultLogWriter));
+            HttpLogFormatter logFormatter = infrastructure.map(CustomFeignInfrastructure::getLogFormatter)
+                    .orElseGet(SplunkHttpLogFormatter::new);
+            if (customFeignConfig.getMeterRegistry().isPresent()) {
+                Tags tags = metricTags(customFeignConfig);
+                logWriter = LogbookMetrics.timed(logWriter, customFeignConfig.getMeterRegistry().get(), tags);
+                logFormatter = LogbookMetrics.timed(logFormatter, customFeignConfig.getMeterRegistry().get(), tags);
+            }
 
             LogbookCreator.Builder logbookCreatorBuilder = Logbook.builder()
-                    .sink(new DefaultSink(new SplunkHttpLogFormatter(), logWriter));
+                    .sink(new DefaultSink(logFormatter, logWriter));
 
-            customFeignConfig.getHeaderFilters().addAll(customFeignConfig.getHeadersToMask().stream()
-                    .map(header -> replaceHeaders(header::equalsIgnoreCase, DATA_MASK))
-                    .collect(Collectors.toList()));
+            // all masked headers / query parameters are handled by a single filter (one pass per message)
+            List<HeaderFilter> headerFilters = new ArrayList<>(customFeignConfig.getHeaderFilters());
+            if (!customFeignConfig.getHeadersToMask().isEmpty()) {
+                headerFilters.add(LogbookUtils.maskHeaders(customFeignConfig.getHeadersToMask(), DATA_MASK));
+            }
+            List<QueryFilter> queryFilters = new ArrayList<>(customFeignConfig.getQueryFilters());
+            if (!customFeignConfig.getQueryParametersToMask().isEmpty()) {
+                queryFilters.add(LogbookUtils.maskQueryParameters(customFeignConfig.getQueryParametersToMask(), DATA_MASK));
+            }
 
-            logbookCreatorBuilder.queryFilters(customFeignConfig.getQueryFilters());
-            logbookCreatorBuilder.headerFilters(customFeignConfig.getHeaderFilters());
+            createStrategy(customFeignConfig).ifPresent(logbookCreatorBuilder::strategy);
+
+            logbookCreatorBuilder.queryFilters(queryFilters);
+            logbookCreatorBuilder.headerFilters(headerFilters);
 
             // check conditions
             if (conditionNotEmpty(customFeignConfig.getExcludeConditions()) && conditionNotEmpty(customFeignConfig.getIncludeConditions())) {
@@ -324,66 +988,132 @@ public class CustomFeignClient<T> {
                 logbookCreatorBuilder.condition(include(customFeignConfig.getIncludeConditions().toArray(Predicate[]::new)));
             }
 
-            okhttp3.OkHttpClient.Builder okHttpClientBuilder = new okhttp3.OkHttpClient.Builder()
-                    .retryOnConnectionFailure(false)
+            okhttp3.OkHttpClient.Builder okHttpClientBuilder = infrastructure
+                    .map(sharedInfrastructure -> sharedInfrastructure.getOkHttpClient().newBuilder())
+                    .orElseGet(okhttp3.OkHttpClient.Builder::new)
+                    .retryOnConnectionFailure(customFeignConfig.isRetryOnConnectionFailure())
+                    .connectTimeout(connectTimeout(customFeignConfig))
+                    .readTimeout(readTimeout(customFeignConfig))
                     .addNetworkInterceptor(new LogbookInterceptor(logbookCreatorBuilder.build()))
                     .addNetworkInterceptor(new GzipInterceptor());
 
-            customFeignConfig.getAvoidSslVerification().ifPresent(avoidSslVerification -> {
+            customFeignConfig.getWriteTimeout().ifPresent(okHttpClientBuilder::writeTimeout);
+            customFeignConfig.getCallTimeout().ifPresent(okHttpClientBuilder::callTimeout);
+            customFeignConfig.getConnectionPool().ifPresent(okHttpClientBuilder::connectionPool);
+            customFeignConfig.getProtocols().ifPresent(okHttpClientBuilder::protocols);
+            customFeignConfig.getDiskCache().ifPresent(okHttpClientBuilder::cache);
+
+            customFeignConfig.getAvoidSslVerification().filter(Boolean::booleanValue).ifPresent(avoidSslVerification -> {
                 try {
-                    SSLContext trustAllSslContext = createTrustAllSslContext();
-                    okHttpClientBuilder.sslSocketFactory(trustAllSslContext.getSocketFactory(), (X509TrustManager) getTrustManagers()[0]);
-                    okHttpClientBuilder.hostnameVerifier((hostname, session) -> true);
+                    TrustAllSsl.apply(okHttpClientBuilder);
                 } catch (NoSuchAlgorithmException | KeyManagementException e) {
                     log.error("Error creating SSL context", e);
                 }
             });
 
-            Feign.Builder builder = Feign.builder();
-            builder
-                    .client(new OkHttpClient(okHttpClientBuilder.build()))
-                    .encoder(customFeignConfig.getEncoder())
-                    .decoder(customFeignConfig.getDecoder())
-                    .contract(customFeignConfig.getContract())
-                    .requestInterceptors(requestInterceptors);
+            okhttp3.OkHttpClient okHttpClient = okHttpClientBuilder.build();
+            Client client = new OkHttpClient(okHttpClient);
+            if (customFeignConfig.getMeterRegistry().isPresent()) {
+                client = meteredClient(customFeignConfig, client, okHttpClient);
+            }
+            Optional<RequestLimitingClient.Limiter> requestLimiter = createRequestLimiter(customFeignConfig);
+            if (requestLimiter.isPresent()) {
+                client = new RequestLimitingClient(client, requestLimiter.get());
+            }
+            if (customFeignConfig.getConcurrencyLimits().isPresent()) {
+                client = new ConcurrencyLimitingClient(client, customFeignConfig.getConcurrencyLimits().get());
+            }
+            if (customFeignConfig.getHedgingPercentile().isPresent()) {
+                Executor executor = customFeignConfig.getHedgingExecutor()
+                        .orElse(DefaultExecutors.HEDGING);
+                client = new HedgingClient(client, executor, customFeignConfig.getHedgingPercentile().get(),
+                        customFeignConfig.getHedgingMinDelay().orElse(Duration.ZERO));
+            }
+            if (customFeignConfig.getSingleFlightKeyHeaders().isPresent()) {
+                client = new SingleFlightClient(client, customFeignConfig.getSingleFlightKeyHeaders().get());
+            }
+            if (customFeignConfig.getResponseCacheMaxEntries().isPresent()) {
+                client = new CachingClient(client, customFeignConfig.getResponseCacheMaxEntries().get(),
+                        customFeignConfig.getResponseCacheTtl().orElse(Duration.ZERO), customFeignConfig.getCacheTtls(),
+                        customFeignConfig.getResponseCacheKeyHeaders());
+            }
+            return client;
+        }
 
-            customFeignConfig.getErrorDecoder().ifPresent(errorDecoder -> builder.errorDecoder(errorDecoder));
+        private Tags metricTags(CustomFeignClient<T> customFeignConfig) {
+            return Tags.of("client", metricsClientName(customFeignConfig));
+        }
 
-            return (T) builder
-                    .target(customFeignConfig.getApiType(), customFeignConfig.getBaseApiUrl());
+        private String metricsClientName(CustomFeignClient<T> customFeignConfig) {
+            return customFeignConfig.getMetricsClientName().orElseGet(() -> customFeignConfig.getApiType().getName());
         }
 
-        private SSLContext createTrustAllSslContext() throws NoSuchAlgorithmException, KeyManagementException {
-            // avoid SSL checks for Client API
-            TrustManager[] trustAllCerts = getTrustManagers();
-            SSLContext sslContext = SSLContext.getInstance("SSL");
-            sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
-            return sslContext;
+        private Client meteredClient(CustomFeignClient<T> customFeignConfig, Client client, okhttp3.OkHttpClient okHttpClient) {
+            MeterRegistry meterRegistry = customFeignConfig.getMeterRegistry().get();
+            boolean sharedPool = customFeignConfig.getInfrastructure()
+                    .filter(infrastructure -> infrastructure.getOkHttpClient().connectionPool() == okHttpClient.connectionPool())
+                    .isPresent();
+            // shared pool is bound once with the infrastructure, see CustomFeignAutoConfiguration
+            if (!sharedPool) {
+                new OkHttpConnectionPoolMetrics(okHttpClient.connectionPool(), "okhttp.pool", metricTags(customFeignConfig))
+                        .bindTo(meterRegistry);
+            }
+            return new MeteredClient(client, meterRegistry, metricsClientName(customFeignConfig));
         }
 
-        @org.jetbrains.annotations.NotNull
-        private TrustManager[] getTrustManagers() {
-            TrustManager[] trustAllCerts = new TrustManager[]{
-                    new X509TrustManager() {
-                        @Override
-                        public void checkClientTrusted(java.security.cert.X509Certificate[] chain, String authType) {
-                        }
+        private Optional<Strategy> createStrategy(CustomFeignClient<T> customFeignConfig) {
+            if (customFeignConfig.getSampleProbability().isPresent() && customFeignConfig.getSamplesPerSecond().isPresent()) {
+                throw new CustomFeignConfigurationException("Both sample probability and samples per second are defined. Please specify only one.");
+            }
+            int maxBodySize = customFeignConfig.getMaxBodySize().orElse(-1);
+            if (customFeignConfig.getSampleProbability().isPresent()) {
+                return Optional.of(SamplingStrategy.probabilistic(customFeignConfig.getSampleProbability().get(), maxBodySize));
+            }
+            if (customFeignConfig.getSamplesPerSecond().isPresent()) {
+                return Optional.of(SamplingStrategy.rateLimited(customFeignConfig.getSamplesPerSecond().get(), maxBodySize));
+            }
+            if (customFeignConfig.getMaxBodySize().isPresent()) {
+                return Optional.of(SamplingStrategy.bodySizeLimited(maxBodySize));
+            }
+            return Optional.empty();
+        }
+
+        private Optional<RequestLimitingClient.Limiter> createRequestLimiter(CustomFeignClient<T> customFeignConfig) {
+            if (customFeignConfig.getMaxRequests().isEmpty() && customFeignConfig.getMaxRequestsPerHost().isEmpty()) {
+                return customFeignConfig.getRequestLimiter().or(() -> customFeignConfig.getInfrastructure()
+                        .flatMap(CustomFeignInfrastructure::getRequestLimiter));
+            }
+            if (customFeignConfig.getRequestLimiter().isPresent()) {
+                throw new CustomFeignConfigurationException("Both request limiter and request limits are defined. Please specify only one.");
+            }
+            return Optional.of(new RequestLimitingClient.Limiter(
+                    customFeignConfig.getMaxRequests().orElse(RequestLimitingClient.Limiter.UNLIMITED),
+                    customFeignConfig.getMaxRequestsPerHost().orElse(RequestLimitingClient.Limiter.UNLIMITED)));
+        }
 
-                        @Override
-                        public void checkServerTrusted(java.security.cert.X509Certificate[] chain, String authType) {
-                        }
+        private Duration connectTimeout(CustomFeignClient<T> customFeignConfig) {
+            return customFeignConfig.getConnectTimeout().orElseGet(() -> customFeignConfig.getInfrastructure()
+                    .map(infrastructure -> Duration.ofMillis(infrastructure.getOkHttpClient().connectTimeoutMillis()))
+                    .orElse(DEFAULT_CONNECT_TIMEOUT));
+        }
 
-                        @Override
-                        public java.security.cert.X509Certificate[] getAcceptedIssuers() {
-                            return new java.security.cert.X509Certificate[]{};
-                        }
-                    }
-            };
-            return trustAllCerts;
+        private Duration readTimeout(CustomFeignClient<T> customFeignConfig) {
+            return customFeignConfig.getReadTimeout().orElseGet(() -> customFeignConfig.getInfrastructure()
+                    .map(infrastructure -> Duration.ofMillis(infrastructure.getOkHttpClient().readTimeoutMillis()))
+                    .orElse(DEFAULT_READ_TIMEOUT));
         }
 
         private boolean conditionNotEmpty(Collection<?> collection) {
             return collection != null && !collection.isEmpty();
         }
     }
+
+    /**
+     * Default executors shared by all clients, created on first use. Threads are virtual (idle daemon threads of
+     * the cached pool are released before Java 21), so the executors don't need to be shut down.
+     */
+    private static final class DefaultExecutors {
+        private static final ExecutorService CALLS = VirtualThreads.newExecutor("feign-call-");
+        private static final ExecutorService HEDGING = VirtualThreads.newExecutor("feign-hedging-");
+    }
 }
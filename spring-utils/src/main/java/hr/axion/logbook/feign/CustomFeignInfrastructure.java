@@ -0,0 +1,122 @@
+package hr.axion.logbook.feign;
+
+import hr.axion.logbook.AsyncHttpLogWriter;
+import hr.axion.logbook.feign.exceptions.CustomFeignConfigurationException;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.zalando.logbook.HttpLogFormatter;
+import org.zalando.logbook.HttpLogWriter;
+import org.zalando.logbook.core.SplunkHttpLogFormatter;
+
+import java.security.GeneralSecurityException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client infrastructure shared by {@link CustomFeignClient} instances
+ * (see {@link CustomFeignClient.Builder#infrastructure(CustomFeignInfrastructure)}): OkHttp client with
+ * connection pool and TLS setup, concurrent request limits, Logbook formatter and writer.<br/>
+ * Clients derive their OkHttp client from the shared one with {@link OkHttpClient#newBuilder()},
+ * Logbook filters and conditions stay per client.<br/>
+ * Shared connection pool metrics are bound once by {@link CustomFeignAutoConfiguration}, not per client.
+ */
+@Slf4j
+public class CustomFeignInfrastructure implements AutoCloseable {
+
+    private final OkHttpClient okHttpClient;
+    private final HttpLogFormatter logFormatter;
+    private final HttpLogWriter logWriter;
+    private final RequestLimitingClient.Limiter requestLimiter;
+
+    public CustomFeignInfrastructure(OkHttpClient okHttpClient, HttpLogFormatter logFormatter, HttpLogWriter logWriter) {
+        this(okHttpClient, logFormatter, logWriter, null);
+    }
+
+    /**
+     * @param requestLimiter limits shared by all clients, null if requests aren't limited
+     */
+    public CustomFeignInfrastructure(OkHttpClient okHttpClient, HttpLogFormatter logFormatter, HttpLogWriter logWriter,
+                                     RequestLimitingClient.Limiter requestLimiter) {
+        this.okHttpClient = okHttpClient;
+        this.logFormatter = logFormatter;
+        this.logWriter = logWriter;
+        this.requestLimiter = requestLimiter;
+    }
+
+    public static CustomFeignInfrastructure create(CustomFeignProperties properties) {
+        OkHttpClient.Builder okHttpClientBuilder = new OkHttpClient.Builder()
+                .retryOnConnectionFailure(false)
+                .connectionPool(new ConnectionPool(properties.getMaxIdleConnections(),
+                        properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .connectTimeout(properties.getConnectTimeout())
+                .readTimeout(properties.getReadTimeout())
+                .writeTimeout(properties.getWriteTimeout());
+        if (properties.getCallTimeout() != null) {
+            okHttpClientBuilder.callTimeout(properties.getCallTimeout());
+        }
+        if (properties.isAvoidSslVerification()) {
+            try {
+                TrustAllSsl.apply(okHttpClientBuilder);
+            } catch (GeneralSecurityException e) {
+                throw new CustomFeignConfigurationException("Error creating SSL context: " + e.getMessage(), e);
+            }
+        }
+
+        CustomFeignProperties.AsyncLogWriter asyncLogWriter = properties.getAsyncLogWriter();
+        HttpLogWriter logWriter = asyncLogWriter.isEnabled()
+                ? new AsyncHttpLogWriter(CustomFeignClient.defaultLogWriter(), asyncLogWriter.getCapacity(),
+                asyncLogWriter.getBatchSize(), asyncLogWriter.getDropPolicy())
+                : CustomFeignClient.defaultLogWriter();
+
+        RequestLimitingClient.Limiter requestLimiter = null;
+        if (properties.getMaxRequests() != null || properties.getMaxRequestsPerHost() != null) {
+            requestLimiter = new RequestLimitingClient.Limiter(
+                    Optional.ofNullable(properties.getMaxRequests()).orElse(RequestLimitingClient.Limiter.UNLIMITED),
+                    Optional.ofNullable(properties.getMaxRequestsPerHost()).orElse(RequestLimitingClient.Limiter.UNLIMITED));
+        }
+
+        return new CustomFeignInfrastructure(okHttpClientBuilder.build(), new SplunkHttpLogFormatter(), logWriter,
+                requestLimiter);
+    }
+
+    /**
+     * @return shared client, derive client specific ones with {@link OkHttpClient#newBuilder()}
+     */
+    public OkHttpClient getOkHttpClient() {
+        return okHttpClient;
+    }
+
+    public HttpLogFormatter getLogFormatter() {
+        return logFormatter;
+    }
+
+    public HttpLogWriter getLogWriter() {
+        return logWriter;
+    }
+
+    /**
+     * @return limits shared by clients which don't define their own
+     */
+    public Optional<RequestLimitingClient.Limiter> getRequestLimiter() {
+        return Optional.ofNullable(requestLimiter);
+    }
+
+    /**
+     * Stops dispatcher threads, closes pooled connections and the log writer
+     */
+    @Override
+    public void close() {
+        okHttpClient.dispatcher().executorService().shutdown();
+        okHttpClient.connectionPool().evictAll();
+        if (logWriter instanceof AsyncHttpLogWriter asyncLogWriter) {
+            asyncLogWriter.close();
+        } else if (logWriter instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Error closing log writer", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package hr.axion.logbook.feign;
+
+import hr.axion.logbook.AsyncHttpLogWriter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Shared HTTP client settings of {@link CustomFeignInfrastructure}
+ */
+@ConfigurationProperties("feign.infrastructure")
+public class CustomFeignProperties {
+    private boolean enabled = true;
+    private int maxIdleConnections = 5;
+    private Duration keepAlive = Duration.ofMinutes(5);
+    // concurrent request limits, see RequestLimitingClient, not limited if not set
+    private Integer maxRequests;
+    private Integer maxRequestsPerHost;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration readTimeout = Duration.ofSeconds(60);
+    private Duration writeTimeout = Duration.ofSeconds(10);
+    private Duration callTimeout;
+    private boolean avoidSslVerification;
+    private final AsyncLogWriter asyncLogWriter = new AsyncLogWriter();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public void setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public Integer getMaxRequests() {
+        return maxRequests;
+    }
+
+    public void setMaxRequests(Integer maxRequests) {
+        this.maxRequests = maxRequests;
+    }
+
+    public Integer getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public void setMaxRequestsPerHost(Integer maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public void setWriteTimeout(Duration writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    public Duration getCallTimeout() {
+        return callTimeout;
+    }
+
+    public void setCallTimeout(Duration callTimeout) {
+        this.callTimeout = callTimeout;
+    }
+
+    public boolean isAvoidSslVerification() {
+        return avoidSslVerification;
+    }
+
+    public void setAvoidSslVerification(boolean avoidSslVerification) {
+        this.avoidSslVerification = avoidSslVerification;
+    }
+
+    public AsyncLogWriter getAsyncLogWriter() {
+        return asyncLogWriter;
+    }
+
+    public static class AsyncLogWriter {
+        private boolean enabled;
+        private int capacity = AsyncHttpLogWriter.DEFAULT_CAPACITY;
+        private int batchSize = AsyncHttpLogWriter.DEFAULT_BATCH_SIZE;
+        private AsyncHttpLogWriter.DropPolicy dropPolicy = AsyncHttpLogWriter.DropPolicy.DROP_NEWEST;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public AsyncHttpLogWriter.DropPolicy getDropPolicy() {
+            return dropPolicy;
+        }
+
+        public void setDropPolicy(AsyncHttpLogWriter.DropPolicy dropPolicy) {
+            this.dropPolicy = dropPolicy;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package hr.axion.logbook.feign;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Feign {@link Client} sending a second (hedged) GET request when the first one takes longer than the given
+ * latency percentile of the API method, the first successful response (status &lt; 500) is used and the other one
+ * is closed. If both requests fail, the last server error response is used, or the last error if there's none.<br/>
+ * Latency percentile is calculated from the last {@value #SAMPLES} successful requests of the method, requests
+ * aren't hedged until {@value #MIN_SAMPLES} requests are recorded. Hedging adds load (up to
+ * <code>1 - percentile</code> more GET requests), use only with idempotent GET methods.
+ */
+public class HedgingClient implements Client {
+
+    private static final int SAMPLES = 1_000;
+    private static final int MIN_SAMPLES = 100;
+    private static final int SERVER_ERROR = 500;
+    private static final String UNKNOWN_METHOD = "unknown";
+
+    private final Client delegate;
+    private final Executor executor;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final Map<String, LatencyTracker> latencyTrackers = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor   executor running the requests, caller thread waits for the first response
+     * @param percentile latency percentile after which the request is hedged, e.g. 0.95
+     * @param minDelay   min delay before hedging
+     */
+    public HedgingClient(Client delegate, Executor executor, double percentile, Duration minDelay) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1");
+        }
+        this.delegate = delegate;
+        this.executor = executor;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (request.httpMethod() != Request.HttpMethod.GET) {
+            return delegate.execute(request, options);
+        }
+        final LatencyTracker tracker = latencyTrackers.computeIfAbsent(configKey(request),
+                key -> new LatencyTracker(percentile));
+        final long hedgeDelay = tracker.getPercentileNanos();
+        if (hedgeDelay < 0) {
+            return timed(request, options, tracker);
+        }
+        final CompletableFuture<Response> primary = submit(request, options, tracker);
+        try {
+            return primary.get(Math.max(hedgeDelay, minDelayNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return firstSuccessful(List.of(primary, submit(request, options, tracker)));
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private CompletableFuture<Response> submit(Request request, Request.Options options, LatencyTracker tracker) {
+        final CompletableFuture<Response> attempt = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                final Response response = timed(request, options, tracker);
+                if (!attempt.complete(response)) {
+                    // cancelled
+                    response.close();
+                }
+            } catch (IOException | RuntimeException e) {
+                attempt.completeExceptionally(e);
+            }
+        });
+        return attempt;
+    }
+
+    private Response timed(Request request, Request.Options options, LatencyTracker tracker) throws IOException {
+        final long start = System.nanoTime();
+        final Response response = delegate.execute(request, options);
+        tracker.record(System.nanoTime() - start);
+        return response;
+    }
+
+    /**
+     * @return first response without server error (status &lt; 500), if all attempts fail the last server error
+     * response, or the last error if no attempt returned a response
+     */
+    private static Response firstSuccessful(List<CompletableFuture<Response>> attempts) throws IOException {
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        final Failures failures = new Failures(attempts.size(), result);
+        for (CompletableFuture<Response> attempt : attempts) {
+            attempt.whenComplete((response, error) -> {
+                if (error == null && response.status() < SERVER_ERROR) {
+                    if (result.complete(response)) {
+                        failures.discard();
+                    } else {
+                        // other attempt was faster
+                        response.close();
+                    }
+                } else {
+                    failures.add(response, error);
+                }
+            });
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            attempts.forEach(attempt -> attempt.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static IOException unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error e) {
+            throw e;
+        }
+        return new IOException(cause);
+    }
+
+    private static String configKey(Request request) {
+        final MethodMetadata methodMetadata = request.requestTemplate() == null ? null
+                : request.requestTemplate().methodMetadata();
+        return methodMetadata == null ? UNKNOWN_METHOD : methodMetadata.configKey();
+    }
+
+    /**
+     * Failed attempts (server error response or error), completes the result when all attempts failed
+     */
+    private static final class Failures {
+        private final int attempts;
+        private final CompletableFuture<Response> result;
+        private int count;
+        private boolean discarded;
+        private Response lastResponse;
+        private Throwable lastError;
+
+        private Failures(int attempts, CompletableFuture<Response> result) {
+            this.attempts = attempts;
+            this.result = result;
+        }
+
+        private synchronized void add(Response response, Throwable error) {
+            if (discarded) {
+                closeQuietly(response);
+                return;
+            }
+            if (response != null) {
+                closeQuietly(lastResponse);
+                lastResponse = response;
+            } else {
+                lastError = error;
+            }
+            if (++count == attempts) {
+                if (lastResponse != null) {
+                    result.complete(lastResponse);
+                } else {
+                    result.completeExceptionally(lastError);
+                }
+            }
+        }
+
+        /**
+         * Other attempt succeeded, failed responses aren't needed
+         */
+        private synchronized void discard() {
+            discarded = true;
+            closeQuietly(lastResponse);
+            lastResponse = null;
+        }
+
+        private static void closeQuietly(Response response) {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * Ring buffer of recent latencies guarded by the tracker lock, percentile is recalculated every
+     * {@value #MIN_SAMPLES} samples from a copy of the buffer (sorted outside the lock)
+     */
+    private static final class LatencyTracker {
+        private final double percentile;
+        private final long[] samples = new long[SAMPLES];
+        private long count;
+        private volatile long percentileNanos = -1;
+
+        private LatencyTracker(double percentile) {
+            this.percentile = percentile;
+        }
+
+        private void record(long latencyNanos) {
+            final long[] sorted;
+            synchronized (this) {
+                samples[(int) (count % SAMPLES)] = latencyNanos;
+                count++;
+                if (count % MIN_SAMPLES != 0) {
+                    return;
+                }
+                sorted = Arrays.copyOf(samples, (int) Math.min(count, SAMPLES));
+            }
+            Arrays.sort(sorted);
+            percentileNanos = sorted[(int) Math.min(sorted.length - 1, Math.floor(sorted.length * percentile))];
+        }
+
+        private long getPercentileNanos() {
+            return percentileNanos;
+        }
+    }
+}
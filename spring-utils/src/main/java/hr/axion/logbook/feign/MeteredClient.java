@@ -0,0 +1,118 @@
+package hr.axion.logbook.feign;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feign {@link Client} recording Micrometer metrics per API method (Feign config key, e.g. <code>OrdersApi#getOrder(Long)</code>):
+ * <ul>
+ *     <li><code>feign.client.requests</code> - latency histogram, tagged by status and outcome (count per status)</li>
+ *     <li><code>feign.client.requests.active</code> - requests in flight</li>
+ *     <li><code>feign.client.request.size</code>, <code>feign.client.response.size</code> - body sizes in bytes,
+ *     response size only if Content-Length is known</li>
+ * </ul>
+ * All meters are tagged with <code>client</code> and <code>method</code>, client name must be unique per registry
+ * (meters with the same tags are shared, the in-flight gauge of a second client with the same name isn't reported).
+ */
+public class MeteredClient implements Client {
+
+    private static final String UNKNOWN_METHOD = "unknown";
+    private static final String IO_ERROR = "IO_ERROR";
+
+    private final Client delegate;
+    private final MeterRegistry meterRegistry;
+    private final String clientName;
+    private final Map<String, MethodMeters> methodMeters = new ConcurrentHashMap<>();
+
+    public MeteredClient(Client delegate, MeterRegistry meterRegistry, String clientName) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.clientName = clientName;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        final MethodMeters meters = methodMeters.computeIfAbsent(configKey(request), this::createMethodMeters);
+        final byte[] body = request.body();
+        meters.requestSize.record(body == null ? 0 : body.length);
+        meters.active.incrementAndGet();
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            final Response response = delegate.execute(request, options);
+            sample.stop(meters.timer(response.status()));
+            if (response.body() != null && response.body().length() != null) {
+                meters.responseSize.record(response.body().length());
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            sample.stop(meters.errorTimer());
+            throw e;
+        } finally {
+            meters.active.decrementAndGet();
+        }
+    }
+
+    private static String configKey(Request request) {
+        final MethodMetadata methodMetadata = request.requestTemplate() == null ? null
+                : request.requestTemplate().methodMetadata();
+        return methodMetadata == null ? UNKNOWN_METHOD : methodMetadata.configKey();
+    }
+
+    private MethodMeters createMethodMeters(String configKey) {
+        return new MethodMeters(Tags.of("client", clientName, "method", configKey));
+    }
+
+    private final class MethodMeters {
+        private final Tags tags;
+        private final AtomicInteger active = new AtomicInteger();
+        private final DistributionSummary requestSize;
+        private final DistributionSummary responseSize;
+        private final Map<Integer, Timer> timers = new ConcurrentHashMap<>();
+        private volatile Timer errorTimer;
+
+        private MethodMeters(Tags tags) {
+            this.tags = tags;
+            Gauge.builder("feign.client.requests.active", active, AtomicInteger::get)
+                    .tags(tags)
+                    .strongReference(true)
+                    .register(meterRegistry);
+            this.requestSize = DistributionSummary.builder("feign.client.request.size")
+                    .baseUnit("bytes").tags(tags).register(meterRegistry);
+            this.responseSize = DistributionSummary.builder("feign.client.response.size")
+                    .baseUnit("bytes").tags(tags).register(meterRegistry);
+        }
+
+        private Timer timer(int status) {
+            return timers.computeIfAbsent(status, key -> timer(String.valueOf(status), Outcome.forStatus(status).name()));
+        }
+
+        private Timer errorTimer() {
+            if (errorTimer == null) {
+                errorTimer = timer(IO_ERROR, Outcome.UNKNOWN.name());
+            }
+            return errorTimer;
+        }
+
+        private Timer timer(String status, String outcome) {
+            return Timer.builder("feign.client.requests")
+                    .tags(tags)
+                    .tag("status", status)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package hr.axion.logbook.feign;
+
+import feign.Request;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keys of responses shared between callers ({@link CachingClient}, {@link SingleFlightClient}) - URL with values
+ * of the key headers.<br/>
+ * Requests carrying credentials that aren't part of the key (e.g. <code>X-Api-Key</code> when only
+ * <code>Authorization</code> is a key header) must not share responses, otherwise one user's response could be
+ * returned to another user, see {@link #hasUnkeyedCredentials(Request, Set)}.
+ */
+final class RequestKeys {
+
+    static final List<String> DEFAULT_KEY_HEADERS = List.of("Accept", "Accept-Language", "Authorization", "Cookie");
+
+    private static final Set<String> CREDENTIAL_HEADERS = caseInsensitiveSet(
+            List.of("Authorization", "Proxy-Authorization", "Cookie"));
+    // custom credential headers, e.g. X-Api-Key, X-Auth-Token, X-Session-Id
+    private static final List<String> CREDENTIAL_NAME_PARTS = List.of("auth", "token", "api-key", "apikey",
+            "session", "secret", "credential", "cookie");
+
+    private RequestKeys() {
+    }
+
+    static String key(Request request, Collection<String> keyHeaders) {
+        final StringBuilder key = new StringBuilder(request.url());
+        for (String header : keyHeaders) {
+            final Collection<String> values = headerValues(request.headers(), header);
+            if (values != null) {
+                key.append('\n').append(header.toLowerCase(Locale.ROOT)).append(':').append(String.join(",", values));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * @param keyHeaders case-insensitive set of key headers
+     * @return true if request has a credential header which isn't a key header
+     */
+    static boolean hasUnkeyedCredentials(Request request, Set<String> keyHeaders) {
+        for (String header : request.headers().keySet()) {
+            if (header != null && isCredentialHeader(header) && !keyHeaders.contains(header)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isCredentialHeader(String header) {
+        if (CREDENTIAL_HEADERS.contains(header)) {
+            return true;
+        }
+        final String name = header.toLowerCase(Locale.ROOT);
+        return CREDENTIAL_NAME_PARTS.stream().anyMatch(name::contains);
+    }
+
+    /**
+     * @return all values of the header, null if request doesn't have it
+     */
+    static Collection<String> headerValues(Map<String, Collection<String>> headers, String name) {
+        for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+            if (header.getKey() != null && header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    static String firstHeader(Map<String, Collection<String>> headers, String name) {
+        final Collection<String> values = headerValues(headers, name);
+        return values == null || values.isEmpty() ? null : values.iterator().next();
+    }
+
+    static Set<String> caseInsensitiveSet(Collection<String> values) {
+        final Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(values);
+        return Collections.unmodifiableSet(set);
+    }
+}
@@ -0,0 +1,96 @@
+package hr.axion.logbook.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Feign {@link Client} limiting concurrent requests - in total and per target host. Requests over the limit
+ * wait for a free permit (in arrival order), like calls queued by OkHttp's <code>Dispatcher</code>.<br/>
+ * Feign calls OkHttp synchronously (<code>Call.execute()</code>), which bypasses <code>Dispatcher</code> limits,
+ * so the limits are enforced here instead. {@link Limiter} can be shared by several clients.
+ */
+public class RequestLimitingClient implements Client {
+
+    private final Client delegate;
+    private final Limiter limiter;
+
+    public RequestLimitingClient(Client delegate, Limiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        final String host = URI.create(request.url()).getHost();
+        final Semaphore hostPermits = limiter.hostPermits(host == null ? "" : host);
+        acquire(hostPermits);
+        try {
+            // host permit is taken first, requests waiting for a busy host don't hold a global permit
+            acquire(limiter.permits);
+            try {
+                return delegate.execute(request, options);
+            } finally {
+                release(limiter.permits);
+            }
+        } finally {
+            release(hostPermits);
+        }
+    }
+
+    private static void acquire(Semaphore permits) throws InterruptedIOException {
+        if (permits == null) {
+            return;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a request permit");
+        }
+    }
+
+    private static void release(Semaphore permits) {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Concurrent request limits, {@link #UNLIMITED} disables a limit
+     */
+    public static final class Limiter {
+
+        public static final int UNLIMITED = Integer.MAX_VALUE;
+
+        private final int maxRequestsPerHost;
+        private final Semaphore permits;
+        private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+        /**
+         * @param maxRequests        max concurrent requests to all hosts
+         * @param maxRequestsPerHost max concurrent requests to a single host
+         */
+        public Limiter(int maxRequests, int maxRequestsPerHost) {
+            if (maxRequests < 1 || maxRequestsPerHost < 1) {
+                throw new IllegalArgumentException("Request limits must be positive");
+            }
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            this.permits = maxRequests == UNLIMITED ? null : new Semaphore(maxRequests, true);
+        }
+
+        private Semaphore hostPermits(String host) {
+            if (maxRequestsPerHost == UNLIMITED) {
+                return null;
+            }
+            return hostPermits.computeIfAbsent(host, key -> new Semaphore(maxRequestsPerHost, true));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package hr.axion.logbook.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Feign {@link Client} sharing one in-flight GET request between concurrent identical requests (single flight).
+ * Requests are identical if they have the same URL and values of the key headers ({@link #DEFAULT_KEY_HEADERS}
+ * by default). Follower gets the response of the leader request, so requests with credential headers which aren't
+ * key headers (e.g. <code>X-Api-Key</code>) are never merged.<br/>
+ * Shared response is read to memory, every caller gets its own copy and decodes it separately,
+ * so callers never share decoded objects. Errors are propagated to all waiting callers.
+ */
+public class SingleFlightClient implements Client {
+
+    public static final List<String> DEFAULT_KEY_HEADERS = RequestKeys.DEFAULT_KEY_HEADERS;
+
+    private final Client delegate;
+    private final List<String> keyHeaders;
+    private final Set<String> keyHeaderSet;
+    private final Map<String, CompletableFuture<BufferedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightClient(Client delegate, List<String> keyHeaders) {
+        this.delegate = delegate;
+        this.keyHeaders = List.copyOf(keyHeaders);
+        this.keyHeaderSet = RequestKeys.caseInsensitiveSet(keyHeaders);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (request.httpMethod() != Request.HttpMethod.GET
+                || RequestKeys.hasUnkeyedCredentials(request, keyHeaderSet)) {
+            return delegate.execute(request, options);
+        }
+        final String key = RequestKeys.key(request, keyHeaders);
+        final CompletableFuture<BufferedResponse> call = new CompletableFuture<>();
+        final CompletableFuture<BufferedResponse> sharedCall = inFlight.putIfAbsent(key, call);
+        if (sharedCall != null) {
+            return await(sharedCall).toResponse(request);
+        }
+        try {
+            final BufferedResponse response = BufferedResponse.of(delegate.execute(request, options));
+            call.complete(response);
+            return response.toResponse(request);
+        } catch (IOException | RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static BufferedResponse await(CompletableFuture<BufferedResponse> call) throws IOException {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for shared response");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
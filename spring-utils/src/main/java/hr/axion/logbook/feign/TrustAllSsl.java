@@ -0,0 +1,54 @@
+package hr.axion.logbook.feign;
+
+import okhttp3.OkHttpClient;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+
+/**
+ * SSL context trusting all certificates, created once and shared by all clients avoiding SSL verification
+ */
+final class TrustAllSsl {
+
+    private static final X509TrustManager TRUST_ALL = new X509TrustManager() {
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[]{};
+        }
+    };
+
+    private static SSLContext sslContext;
+
+    private TrustAllSsl() {
+    }
+
+    /**
+     * Avoids SSL checks of the client
+     */
+    static void apply(OkHttpClient.Builder okHttpClientBuilder) throws NoSuchAlgorithmException, KeyManagementException {
+        okHttpClientBuilder.sslSocketFactory(sslContext().getSocketFactory(), TRUST_ALL);
+        okHttpClientBuilder.hostnameVerifier((hostname, session) -> true);
+    }
+
+    private static synchronized SSLContext sslContext() throws NoSuchAlgorithmException, KeyManagementException {
+        if (sslContext == null) {
+            SSLContext context = SSLContext.getInstance("SSL");
+            context.init(null, new TrustManager[]{TRUST_ALL}, new SecureRandom());
+            sslContext = context;
+        }
+        return sslContext;
+    }
+}
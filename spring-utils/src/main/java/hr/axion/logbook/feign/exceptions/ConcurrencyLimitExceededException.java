@@ -0,0 +1,10 @@
+package hr.axion.logbook.feign.exceptions;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
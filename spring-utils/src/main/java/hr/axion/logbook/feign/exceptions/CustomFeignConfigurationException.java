@@ -5,4 +5,8 @@ public class CustomFeignConfigurationException extends RuntimeException {
     public CustomFeignConfigurationException(String message) {
         super(message);
     }
+
+    public CustomFeignConfigurationException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
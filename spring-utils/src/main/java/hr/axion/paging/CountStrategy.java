@@ -0,0 +1,23 @@
+package hr.axion.paging;
+
+/**
+ * How {@link PagedResponse#getTotalCount()} is calculated, see {@link TotalCounter}.
+ */
+public enum CountStrategy {
+    /**
+     * No total count, query a {@link org.springframework.data.domain.Slice} instead of a page
+     */
+    NONE,
+    /**
+     * <code>count(*)</code> on every request (default)
+     */
+    EXACT,
+    /**
+     * Estimate from database statistics, e.g. {@link TotalCounter#postgresTableEstimate}
+     */
+    ESTIMATED,
+    /**
+     * Exact count, cached for the same filter until it expires
+     */
+    CACHED
+}
@@ -0,0 +1,66 @@
+package hr.axion.paging;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JPA {@link Specification} for keyset (seek) pagination, for queries that can't use
+ * Spring Data scrolling (<code>Window</code>) directly.<br/>
+ * For sort <code>createdAt desc, id asc</code> and the last row <code>(t, 15)</code> the predicate is
+ * <pre>
+ * createdAt &lt; t or (createdAt = t and id &gt; 15)
+ * </pre>
+ * Sort must end with a unique property (e.g. id), sort keys must not be null.
+ */
+public final class KeysetSpecifications {
+
+    private KeysetSpecifications() {
+    }
+
+    /**
+     * @param sort     query sort, same as used for the cursor
+     * @param position decoded cursor, see {@link PageCursor#decode(String, Class)}
+     * @return specification selecting rows after (or before, for backward position) the position,
+     * no restriction for the initial position
+     */
+    public static <T> Specification<T> seek(final Sort sort, final KeysetScrollPosition position) {
+        return (root, query, criteriaBuilder) -> {
+            if (position.isInitial()) {
+                return null;
+            }
+            final List<Predicate> alternatives = new ArrayList<>();
+            final List<Predicate> equalKeys = new ArrayList<>();
+            for (Sort.Order order : sort) {
+                if (!position.getKeys().containsKey(order.getProperty())) {
+                    throw new IllegalArgumentException("Cursor doesn't contain sort key [%s]".formatted(order.getProperty()));
+                }
+                final Path<Comparable<Object>> path = path(root, order.getProperty());
+                @SuppressWarnings("unchecked")
+                final Comparable<Object> value = (Comparable<Object>) position.getKeys().get(order.getProperty());
+                final boolean greater = order.isAscending() == position.scrollsForward();
+                final List<Predicate> alternative = new ArrayList<>(equalKeys);
+                alternative.add(greater ? criteriaBuilder.greaterThan(path, value) : criteriaBuilder.lessThan(path, value));
+                alternatives.add(criteriaBuilder.and(alternative.toArray(Predicate[]::new)));
+                equalKeys.add(criteriaBuilder.equal(path, value));
+            }
+            return criteriaBuilder.or(alternatives.toArray(Predicate[]::new));
+        };
+    }
+
+    private static <Y> Path<Y> path(final Root<?> root, final String property) {
+        Path<?> path = root;
+        for (String name : property.split("\\.")) {
+            path = path.get(name);
+        }
+        @SuppressWarnings("unchecked")
+        final Path<Y> typedPath = (Path<Y>) path;
+        return typedPath;
+    }
+}
@@ -9,7 +9,6 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.util.ArrayList;
 import java.util.List;
 
 @Target(ElementType.FIELD)
@@ -29,10 +28,12 @@ public @interface OrderByField {
 
     class OrderByFieldValidator implements ConstraintValidator<OrderByField, List<String>> {
         private OrderByField orderByField;
+        private OrderByKeys orderByKeys;
 
         @Override
         public void initialize(OrderByField orderByField) {
             this.orderByField = orderByField;
+            this.orderByKeys = OrderByKeys.of(orderByField);
         }
 
         @Override
@@ -41,15 +42,7 @@ public @interface OrderByField {
             if (objects == null || objects.isEmpty()) {
                 return true;
             }
-            final List<String> allPossibleValues = new ArrayList<>();
-            for (String value : orderByField.allowedValues()) {
-                allPossibleValues.add(value);
-                allPossibleValues.add(value + DELIMETER + "asc");
-                allPossibleValues.add(value + DELIMETER + "desc");
-            }
-            final boolean isOk = objects.stream().allMatch(x -> allPossibleValues.stream().anyMatch(
-                    s -> s.equalsIgnoreCase(x)
-            ));
+            final boolean isOk = objects.stream().allMatch(orderByKeys::isAllowed);
             if (!isOk) {
                 final String message = "Allowed fields are %s%s[asc,desc]".formatted(
                         String.join(", ", orderByField.allowedValues()), DELIMETER);
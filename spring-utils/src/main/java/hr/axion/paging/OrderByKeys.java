@@ -0,0 +1,64 @@
+package hr.axion.paging;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Allowed values of an {@link OrderByField}, precomputed once per annotation.<br/>
+ * Every allowed value is stored as <code>value</code>, <code>value:asc</code> and <code>value:desc</code>
+ * with a lower case key, together with its parsed property and direction. Lookups lower case the value once,
+ * so matching is case-insensitive.
+ */
+final class OrderByKeys {
+
+    private static final Map<OrderByField, OrderByKeys> CACHE = new ConcurrentHashMap<>();
+
+    private final Map<String, OrderBy> orderByValues;
+
+    private OrderByKeys(final OrderByField orderByField) {
+        final Map<String, OrderBy> values = new HashMap<>();
+        for (String value : orderByField.allowedValues()) {
+            final String key = key(value);
+            values.putIfAbsent(key, new OrderBy(value, null));
+            values.putIfAbsent(key + OrderByField.DELIMETER + "asc", new OrderBy(value, Sort.Direction.ASC));
+            values.putIfAbsent(key + OrderByField.DELIMETER + "desc", new OrderBy(value, Sort.Direction.DESC));
+        }
+        this.orderByValues = Collections.unmodifiableMap(values);
+    }
+
+    static OrderByKeys of(final OrderByField orderByField) {
+        return CACHE.computeIfAbsent(orderByField, OrderByKeys::new);
+    }
+
+    boolean isAllowed(final String value) {
+        return value != null && orderByValues.containsKey(key(value));
+    }
+
+    /**
+     * @param value order by value, e.g. <code>name:desc</code>
+     * @return parsed value, null if value isn't allowed
+     */
+    OrderBy find(final String value) {
+        return value == null ? null : orderByValues.get(key(value));
+    }
+
+    private static String key(final String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param property  allowed value in its declared casing
+     * @param direction null if the value has no direction suffix
+     */
+    record OrderBy(String property, Sort.Direction direction) {
+
+        Sort.Order toOrder(final Sort.Direction defaultDirection) {
+            return new Sort.Order(direction == null ? defaultDirection : direction, property);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package hr.axion.paging;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque cursor for keyset pagination - sort key values of the last returned row,
+ * encoded as Base64url JSON, e.g. <code>{"d":"FORWARD","k":{"createdAt":"2024-01-01T10:00:00","id":15}}</code>.<br/>
+ * JSON values are converted back to entity field types when decoded, so cursors can be used for
+ * temporal, decimal or UUID sort keys.
+ */
+public final class PageCursor {
+
+    private static final String DIRECTION = "d";
+    private static final String KEYS = "k";
+
+    private static final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private static final TypeReference<Map<String, Object>> CURSOR_TYPE = new TypeReference<>() {
+    };
+
+    private PageCursor() {
+    }
+
+    /**
+     * @return cursor for the given position, null for the initial position
+     */
+    public static String encode(final KeysetScrollPosition position) {
+        if (position == null || position.isInitial()) {
+            return null;
+        }
+        final Map<String, Object> cursor = new LinkedHashMap<>();
+        cursor.put(DIRECTION, position.getDirection().name());
+        cursor.put(KEYS, position.getKeys());
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cursor keys can't be serialized " + position.getKeys(), e);
+        }
+    }
+
+    /**
+     * @return cursor pointing after the last row of the window, null if there are no more rows
+     * @throws IllegalArgumentException if window isn't scrolled by keyset
+     */
+    public static String nextCursor(final Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        final ScrollPosition position = window.positionAt(window.size() - 1);
+        if (!(position instanceof KeysetScrollPosition keysetPosition)) {
+            throw new IllegalArgumentException("Only keyset positions can be used as cursor, found " + position);
+        }
+        return encode(keysetPosition);
+    }
+
+    /**
+     * Cursor pointing after the given row, for queries not returning a {@link Window}
+     * (e.g. {@link KeysetSpecifications}).
+     *
+     * @param row  last returned row
+     * @param sort sort of the query, every sort property is read from the row
+     */
+    public static String encode(final Object row, final Sort sort) {
+        final BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        final Map<String, Object> keys = new LinkedHashMap<>();
+        sort.forEach(order -> keys.put(order.getProperty(), beanWrapper.getPropertyValue(order.getProperty())));
+        return encode(ScrollPosition.forward(keys));
+    }
+
+    /**
+     * @param cursor     cursor returned by {@link #encode(KeysetScrollPosition)}, null or empty for the first page
+     * @param entityType entity class used to convert key values to field types
+     * @throws IllegalArgumentException if cursor is invalid
+     */
+    @SuppressWarnings("unchecked")
+    public static KeysetScrollPosition decode(final String cursor, final Class<?> entityType) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            final Map<String, Object> decoded = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), CURSOR_TYPE);
+            final ScrollPosition.Direction direction = ScrollPosition.Direction.valueOf((String) decoded.get(DIRECTION));
+            final Map<String, Object> keys = new LinkedHashMap<>();
+            ((Map<String, Object>) decoded.get(KEYS)).forEach((property, value) ->
+                    keys.put(property, convertKey(entityType, property, value)));
+            return ScrollPosition.of(keys, direction);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor [%s]".formatted(cursor), e);
+        }
+    }
+
+    private static Object convertKey(final Class<?> entityType, final String property, final Object value) {
+        if (value == null || entityType == null) {
+            return value;
+        }
+        // resolve nested property type, e.g. address.city
+        JavaType type = objectMapper.constructType(entityType);
+        for (String name : property.split("\\.")) {
+            final Field field = FieldUtils.getField(type.getRawClass(), name, true);
+            if (field == null) {
+                return value;
+            }
+            type = objectMapper.constructType(field.getGenericType());
+        }
+        return objectMapper.convertValue(value, type);
+    }
+}
@@ -2,18 +2,12 @@ package hr.axion.paging;
 
 import jakarta.validation.constraints.Min;
 import lombok.Data;
-import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
 
 @Data
 public class PagedRequest {
@@ -24,6 +18,13 @@ public class PagedRequest {
     @Min(value = 1, message = "Page size must be greater than zero")
     private Integer pageSize = 10;
 
+    /**
+     * Keyset pagination cursor, see {@link PagedResponse#getNextCursor()}
+     */
+    private String cursor;
+
+    private CountStrategy countStrategy = CountStrategy.EXACT;
+
     private final static Sort.Direction defaultSort = Sort.Direction.ASC;
 
     public PagedRequest() {
@@ -35,38 +36,27 @@ public class PagedRequest {
     }
 
     public Pageable toPageable() {
-        final Sort sort = buildSort();
+        final Sort sort = toSort();
         return PageRequest.of(page - 1, pageSize, sort);
     }
 
-    @SuppressWarnings("All")
-    private Sort buildSort() {
-        final Optional<Field> orderByField = FieldUtils.getFieldsListWithAnnotation(getClass(), OrderByField.class)
-                .stream().findFirst();
-        List<String> orderByList = null;
-        if (orderByField.isPresent()) {
-            try {
-                final PropertyDescriptor pdInput = new PropertyDescriptor(orderByField.get().getName(), getClass());
-                orderByList = (List<String>) pdInput.getReadMethod().invoke(this);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            } catch (IntrospectionException e) {
-                throw new RuntimeException(e);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException(e);
-            }
-        }
-        if (orderByList == null || orderByList.isEmpty()) {
-            return Sort.unsorted();
-        }
-        // build sort order list
-        final List<Sort.Order> sortOrderList = new ArrayList<>();
-        orderByList.forEach(orderBy -> {
-            final String[] split = orderBy.split(OrderByField.DELIMETER);
-            final Sort.Direction direction = split.length == 1 ?
-                    defaultSort : Sort.Direction.fromString(split[1]);
-            sortOrderList.add(new Sort.Order(direction, split[0]));
-        });
-        return Sort.by(sortOrderList);
+    public Sort toSort() {
+        return SortPlan.of(getClass()).buildSort(this, defaultSort);
+    }
+
+    /**
+     * Keyset pagination, use with {@link #toSort()} and {@link #toLimit()}, e.g.
+     * <code>repository.findBy(spec, q -&gt; q.sortBy(sort).limit(limit).scroll(position))</code>.
+     * Sort should end with a unique property, so rows with equal sort keys aren't skipped.
+     *
+     * @param entityType entity class, used to convert cursor values to entity field types
+     * @return position decoded from the cursor, initial position if cursor isn't set
+     */
+    public KeysetScrollPosition toScrollPosition(Class<?> entityType) {
+        return PageCursor.decode(cursor, entityType);
+    }
+
+    public Limit toLimit() {
+        return Limit.of(pageSize);
     }
 }
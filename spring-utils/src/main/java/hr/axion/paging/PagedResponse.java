@@ -3,6 +3,7 @@ package hr.axion.paging;
 import lombok.Data;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 
@@ -14,6 +15,7 @@ public class PagedResponse<T> {
     private Integer nextPage;
     private Integer pageSize;
     private Long totalCount;
+    private String nextCursor;
 
     public PagedResponse() {
     }
@@ -27,4 +29,22 @@ public class PagedResponse<T> {
             this.totalCount = ((Page<?>)page).getTotalElements();
         }
     }
+
+    /**
+     * @param totalCount total count resolved by {@link TotalCounter}, null if not counted
+     */
+    public PagedResponse(List<T> data, Slice<?> page, Long totalCount) {
+        this(data, page);
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Keyset pagination response, {@link #nextCursor} points after the last row if there are more rows.
+     * {@link #pageSize} is the requested page size (same as for {@link Slice}), not the number of returned rows.
+     */
+    public PagedResponse(List<T> data, Window<?> window, PagedRequest request) {
+        this.data = data;
+        this.pageSize = request.getPageSize();
+        this.nextCursor = PageCursor.nextCursor(window);
+    }
 }
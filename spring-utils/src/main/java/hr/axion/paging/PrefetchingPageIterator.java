@@ -0,0 +1,142 @@
+package hr.axion.paging;
+
+import hr.axion.concurrent.VirtualThreads;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates all pages of a paged endpoint, fetching up to <code>prefetch</code> following pages concurrently
+ * while the caller processes the current one, e.g.
+ * <pre>
+ * try (PrefetchingPageIterator&lt;OrderDto&gt; pages = new PrefetchingPageIterator&lt;&gt;(
+ *         page -&gt; ordersClient.getOrders(page, 500), 4)) {
+ *     pages.forEachRemaining(page -&gt; process(page.getData()));
+ * }
+ * </pre>
+ * Pages are requested by consecutive page numbers, iteration ends with the first page without
+ * {@link PagedResponse#getNextPage()}; pages requested after it are cancelled and discarded.
+ * At most <code>prefetch</code> pages are in flight or buffered.<br/>
+ * Iterator isn't thread safe, it's meant for a single consumer. Fetch errors are rethrown from {@link #next()},
+ * and close the iterator.
+ */
+public class PrefetchingPageIterator<T> implements Iterator<PagedResponse<T>>, AutoCloseable {
+
+    private final IntFunction<PagedResponse<T>> pageFetcher;
+    private final int prefetch;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final Deque<FutureTask<PagedResponse<T>>> pages = new ArrayDeque<>();
+    private int nextPageToFetch;
+    private boolean closed;
+
+    /**
+     * Fetches pages on virtual threads (platform daemon threads before Java 21), see {@link VirtualThreads}
+     */
+    public PrefetchingPageIterator(IntFunction<PagedResponse<T>> pageFetcher, int prefetch) {
+        this(pageFetcher, 1, prefetch, VirtualThreads.newExecutor("page-prefetch-"), true);
+    }
+
+    /**
+     * @param firstPage first page number (1 based, as {@link PagedRequest#getPage()})
+     * @param executor  executor used for fetching, not shut down on close
+     */
+    public PrefetchingPageIterator(IntFunction<PagedResponse<T>> pageFetcher, int firstPage, int prefetch,
+                                   Executor executor) {
+        this(pageFetcher, firstPage, prefetch, executor, false);
+    }
+
+    private PrefetchingPageIterator(IntFunction<PagedResponse<T>> pageFetcher, int firstPage, int prefetch,
+                                    Executor executor, boolean ownsExecutor) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("Prefetch must be greater than zero");
+        }
+        this.pageFetcher = pageFetcher;
+        this.prefetch = prefetch;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.nextPageToFetch = firstPage;
+        fill();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !closed && !pages.isEmpty();
+    }
+
+    @Override
+    public PagedResponse<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final PagedResponse<T> page;
+        try {
+            page = pages.poll().get();
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for page");
+        } catch (ExecutionException e) {
+            close();
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        if (page == null || page.getNextPage() == null) {
+            // last page, cancel speculative requests
+            close();
+        } else {
+            fill();
+        }
+        return page;
+    }
+
+    /**
+     * @return remaining pages, closing the stream closes this iterator
+     */
+    public Stream<PagedResponse<T>> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Cancels pages in flight, releases the executor if it was created by this iterator
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pages.forEach(page -> page.cancel(true));
+        pages.clear();
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+
+    private void fill() {
+        while (!closed && pages.size() < prefetch) {
+            final int pageNumber = nextPageToFetch++;
+            final FutureTask<PagedResponse<T>> page = new FutureTask<>(() -> pageFetcher.apply(pageNumber));
+            pages.add(page);
+            executor.execute(page);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package hr.axion.paging;
+
+import hr.axion.patch.PatchAccessors;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.data.domain.Sort;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * {@link OrderByField} accessor of a {@link PagedRequest} subclass, resolved once per class.<br/>
+ * Built sorts are cached per resolved orders - declared property names with directions
+ * (up to {@link #MAX_CACHED_SORTS} combinations), so repeated requests reuse the same immutable {@link Sort}.
+ * Casing variants of the same value share one entry and repeated properties are dropped (only the first one
+ * affects the order), so only distinct sorts of allowed values take cache slots. Sorts with values that
+ * aren't allowed are never cached.
+ */
+final class SortPlan {
+
+    static final int MAX_CACHED_SORTS = 1_000;
+
+    private static final ClassValue<SortPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected SortPlan computeValue(final Class<?> type) {
+            return new SortPlan(type);
+        }
+    };
+
+    private final Function<Object, Object> orderByGetter;
+    private final OrderByKeys orderByKeys;
+    private final Map<List<Sort.Order>, Sort> sorts = new ConcurrentHashMap<>();
+
+    private SortPlan(final Class<?> requestClass) {
+        final Optional<Field> orderByField = FieldUtils.getFieldsListWithAnnotation(requestClass, OrderByField.class)
+                .stream().findFirst();
+        if (orderByField.isPresent()) {
+            try {
+                final PropertyDescriptor pdInput = new PropertyDescriptor(orderByField.get().getName(), requestClass);
+                this.orderByGetter = PatchAccessors.LAMBDA.getter(pdInput.getReadMethod());
+                this.orderByKeys = OrderByKeys.of(orderByField.get().getAnnotation(OrderByField.class));
+            } catch (IntrospectionException e) {
+                throw new RuntimeException(e);
+            }
+        } else {
+            this.orderByGetter = null;
+            this.orderByKeys = null;
+        }
+    }
+
+    static SortPlan of(final Class<?> requestClass) {
+        return PLANS.get(requestClass);
+    }
+
+    @SuppressWarnings("unchecked")
+    Sort buildSort(final PagedRequest request, final Sort.Direction defaultDirection) {
+        if (orderByGetter == null) {
+            return Sort.unsorted();
+        }
+        final List<String> orderByList = (List<String>) orderByGetter.apply(request);
+        if (orderByList == null || orderByList.isEmpty()) {
+            return Sort.unsorted();
+        }
+        final List<Sort.Order> allowedOrders = allowedOrders(orderByList, defaultDirection);
+        if (allowedOrders == null) {
+            return parseSort(orderByList, defaultDirection);
+        }
+        final Sort cached = sorts.get(allowedOrders);
+        if (cached != null) {
+            return cached;
+        }
+        final Sort sort = Sort.by(allowedOrders);
+        if (sorts.size() < MAX_CACHED_SORTS) {
+            sorts.putIfAbsent(allowedOrders, sort);
+        }
+        return sort;
+    }
+
+    /**
+     * @return orders of declared properties without repeated properties, null if some value isn't allowed
+     */
+    private List<Sort.Order> allowedOrders(final List<String> orderByList, final Sort.Direction defaultDirection) {
+        final List<Sort.Order> orders = new ArrayList<>(orderByList.size());
+        final Set<String> properties = new HashSet<>();
+        for (String orderBy : orderByList) {
+            final OrderByKeys.OrderBy allowed = orderByKeys.find(orderBy);
+            if (allowed == null) {
+                return null;
+            }
+            if (properties.add(allowed.property())) {
+                orders.add(allowed.toOrder(defaultDirection));
+            }
+        }
+        return orders;
+    }
+
+    private Sort parseSort(final List<String> orderByList, final Sort.Direction defaultDirection) {
+        // build sort order list
+        final List<Sort.Order> sortOrderList = new ArrayList<>();
+        orderByList.forEach(orderBy -> {
+            final OrderByKeys.OrderBy allowed = orderByKeys.find(orderBy);
+            if (allowed != null) {
+                sortOrderList.add(allowed.toOrder(defaultDirection));
+                return;
+            }
+            // not validated request, parse as is
+            final String[] split = orderBy.split(OrderByField.DELIMETER);
+            final Sort.Direction direction = split.length == 1 ?
+                    defaultDirection : Sort.Direction.fromString(split[1]);
+            sortOrderList.add(new Sort.Order(direction, split[0]));
+        });
+        return Sort.by(sortOrderList);
+    }
+}
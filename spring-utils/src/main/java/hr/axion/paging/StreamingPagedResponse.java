@@ -0,0 +1,91 @@
+package hr.axion.paging;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Window;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * {@link PagedResponse} variant for large pages, rows are serialized one by one while they are read
+ * from the source, so the page is never held as a list. Written as
+ * <pre>
+ * { "data": [...], "page": 1, "nextPage": 2, "pageSize": 5000, "totalCount": null, "nextCursor": null }
+ * </pre>
+ * Metadata is written after the rows, so it can be set while the source is read.<br/>
+ * Data can be iterated only once. Source stream (e.g. JPA repository <code>Stream</code>) is closed after
+ * serialization, transaction/session must stay open until then, e.g. by writing the response through
+ * {@link #toResponseBody(ObjectMapper)} inside a transaction.
+ */
+@Getter
+@Setter
+@JsonSerialize(using = StreamingPagedResponseSerializer.class)
+public class StreamingPagedResponse<T> implements AutoCloseable {
+
+    private final Iterator<? extends T> data;
+    // not exposed, called by close()
+    @Getter(AccessLevel.NONE)
+    private final Runnable onClose;
+    private Integer page;
+    private Integer nextPage;
+    private Integer pageSize;
+    private Long totalCount;
+    private String nextCursor;
+
+    public StreamingPagedResponse(Iterator<? extends T> data) {
+        this.data = data;
+        this.onClose = null;
+    }
+
+    public StreamingPagedResponse(Stream<? extends T> data) {
+        this.data = data.iterator();
+        this.onClose = data::close;
+    }
+
+    public StreamingPagedResponse(Stream<? extends T> data, PagedRequest request) {
+        this(data);
+        this.page = request.getPage();
+        this.pageSize = request.getPageSize();
+    }
+
+    /**
+     * Keyset pagination response, rows are mapped while serialized.
+     * Page size is the requested page size, same as in {@link PagedResponse}.
+     *
+     * @param mapper maps entity to DTO
+     */
+    public static <E, T> StreamingPagedResponse<T> of(Window<E> window, PagedRequest request,
+                                                      Function<? super E, ? extends T> mapper) {
+        final StreamingPagedResponse<T> response = new StreamingPagedResponse<>(window.stream().map(mapper));
+        response.setPageSize(request.getPageSize());
+        response.setNextCursor(PageCursor.nextCursor(window));
+        return response;
+    }
+
+    /**
+     * @return response body writing this response, for returning from controller methods
+     * (<code>ResponseEntity&lt;StreamingResponseBody&gt;</code>) or writing within a transaction
+     */
+    public StreamingResponseBody toResponseBody(ObjectMapper objectMapper) {
+        return outputStream -> objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValue(outputStream, this);
+    }
+
+    /**
+     * Closes the source stream, called after the rows are serialized
+     */
+    @Override
+    public void close() {
+        if (onClose != null) {
+            onClose.run();
+        }
+    }
+}
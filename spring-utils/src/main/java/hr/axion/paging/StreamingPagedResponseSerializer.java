@@ -0,0 +1,41 @@
+package hr.axion.paging;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Writes {@link StreamingPagedResponse} rows as they are read from the source, followed by page metadata.
+ */
+public class StreamingPagedResponseSerializer extends StdSerializer<StreamingPagedResponse<?>> {
+
+    private static final long serialVersionUID = 1L;
+
+    public StreamingPagedResponseSerializer() {
+        super(StreamingPagedResponse.class, false);
+    }
+
+    @Override
+    public void serialize(StreamingPagedResponse<?> value, JsonGenerator gen,
+                          SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeFieldName("data");
+        gen.writeStartArray();
+        try (value) {
+            final Iterator<?> rows = value.getData();
+            while (rows.hasNext()) {
+                provider.defaultSerializeValue(rows.next(), gen);
+            }
+        }
+        gen.writeEndArray();
+        provider.defaultSerializeField("page", value.getPage(), gen);
+        provider.defaultSerializeField("nextPage", value.getNextPage(), gen);
+        provider.defaultSerializeField("pageSize", value.getPageSize(), gen);
+        provider.defaultSerializeField("totalCount", value.getTotalCount(), gen);
+        provider.defaultSerializeField("nextCursor", value.getNextCursor(), gen);
+        gen.writeEndObject();
+    }
+}
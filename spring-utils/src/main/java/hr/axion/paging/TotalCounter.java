@@ -0,0 +1,109 @@
+package hr.axion.paging;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Resolves total count by {@link CountStrategy}, e.g.
+ * <pre>
+ * Long totalCount = totalCounter.count(request.getCountStrategy(), Arrays.asList(filter.getStatus(), filter.getName()),
+ *         () -&gt; repository.count(spec), TotalCounter.postgresTableEstimate(entityManager, "orders"));
+ * return new PagedResponse&lt;&gt;(data, slice, totalCount);
+ * </pre>
+ * Cached counts are kept for <code>timeToLive</code>, at most <code>maxEntries</code> filters are cached,
+ * counts for new filters aren't cached while the cache is full.<br/>
+ * Filter signature is used as a map key, so it must implement <code>equals</code>/<code>hashCode</code>.
+ * Signature lists may contain nulls (optional filters), use <code>Arrays.asList</code> instead of
+ * <code>List.of</code> for them. Null signature is cached as a single "no filter" entry.
+ */
+public class TotalCounter {
+
+    // key of null filter signature, ConcurrentHashMap doesn't allow null keys
+    private static final Object NO_FILTER = new Object();
+
+    private final long timeToLiveNanos;
+    private final int maxEntries;
+    private final Map<Object, CachedCount> cachedCounts = new ConcurrentHashMap<>();
+
+    public TotalCounter(Duration timeToLive, int maxEntries) {
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param strategy        count strategy, {@link CountStrategy#EXACT} if null
+     * @param filterSignature cache key, equal for queries with the same filter (e.g. list of filter values), can be null
+     * @param exactCount      count query
+     * @param estimatedCount  estimate, exact count is used if null or estimate isn't available (negative)
+     * @return total count, null for {@link CountStrategy#NONE}
+     */
+    public Long count(CountStrategy strategy, Object filterSignature, LongSupplier exactCount,
+                      LongSupplier estimatedCount) {
+        if (strategy == null) {
+            return exactCount.getAsLong();
+        }
+        return switch (strategy) {
+            case NONE -> null;
+            case EXACT -> exactCount.getAsLong();
+            case ESTIMATED -> {
+                final long estimate = estimatedCount == null ? -1 : estimatedCount.getAsLong();
+                yield estimate < 0 ? exactCount.getAsLong() : estimate;
+            }
+            case CACHED -> cachedCount(filterSignature, exactCount);
+        };
+    }
+
+    public void evict(Object filterSignature) {
+        cachedCounts.remove(cacheKey(filterSignature));
+    }
+
+    public void evictAll() {
+        cachedCounts.clear();
+    }
+
+    private long cachedCount(Object filterSignature, LongSupplier exactCount) {
+        final Object key = cacheKey(filterSignature);
+        final long now = System.nanoTime();
+        final CachedCount cached = cachedCounts.get(key);
+        if (cached != null && now - cached.expiresAt() < 0) {
+            return cached.count();
+        }
+        // counted outside the map, concurrent requests for the same filter may count twice
+        final long count = exactCount.getAsLong();
+        if (cached == null && cachedCounts.size() >= maxEntries) {
+            cachedCounts.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+        }
+        if (cached != null || cachedCounts.size() < maxEntries) {
+            cachedCounts.put(key, new CachedCount(count, System.nanoTime() + timeToLiveNanos));
+        }
+        return count;
+    }
+
+    private static Object cacheKey(Object filterSignature) {
+        return filterSignature == null ? NO_FILTER : filterSignature;
+    }
+
+    /**
+     * Row count estimate of the whole table from PostgreSQL statistics (<code>pg_class.reltuples</code>),
+     * updated by VACUUM/ANALYZE. Use for unfiltered lists only.
+     *
+     * @return -1 if table doesn't exist or wasn't analyzed yet
+     */
+    public static LongSupplier postgresTableEstimate(EntityManager entityManager, String tableName) {
+        return () -> {
+            final Number estimate = ((List<?>) entityManager
+                    .createNativeQuery("select cast(reltuples as bigint) from pg_class where oid = to_regclass(?1)")
+                    .setParameter(1, tableName)
+                    .getResultList()).stream().map(Number.class::cast).findFirst().orElse(null);
+            return estimate == null ? -1 : estimate.longValue();
+        };
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
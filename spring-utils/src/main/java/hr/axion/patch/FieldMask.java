@@ -0,0 +1,169 @@
+package hr.axion.patch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable field mask index (trie) - [ name, address.street, extraInfo.field1 ] is stored as
+ * <pre>
+ * name
+ * address
+ *   street
+ * extraInfo
+ *   field1
+ * </pre>
+ * so lookups cost one map access per path level instead of scanning the whole mask list.
+ * Node is <i>terminal</i> if a mask item ends on it.
+ */
+public final class FieldMask {
+
+    public static final FieldMask EMPTY = new FieldMask(Collections.emptyMap(), null);
+
+    public static final char SEPARATOR = '.';
+    public static final String WILDCARD = "*";
+
+    private final Map<String, FieldMask> children;
+    private final String path;
+
+    private FieldMask(final Map<String, FieldMask> children, final String path) {
+        this.children = children;
+        this.path = path;
+    }
+
+    /**
+     * @param fieldMasks e.g. [ name, address.street, extraInfo.field1 ]
+     */
+    public static FieldMask of(final Collection<String> fieldMasks) {
+        if (fieldMasks == null || fieldMasks.isEmpty()) {
+            return EMPTY;
+        }
+        final Builder root = new Builder();
+        for (String fieldMask : fieldMasks) {
+            Builder node = root;
+            int start = 0;
+            int end;
+            while ((end = fieldMask.indexOf(SEPARATOR, start)) >= 0) {
+                node = node.child(fieldMask.substring(start, end));
+                start = end + 1;
+            }
+            node = node.child(fieldMask.substring(start));
+            node.path = fieldMask;
+        }
+        return root.build();
+    }
+
+    /**
+     * @return true if field mask contains the field on this level, e.g. <code>address</code> node contains <code>street</code>
+     */
+    public boolean contains(final String fieldName) {
+        final FieldMask child = children.get(fieldName);
+        return child != null && child.isTerminal();
+    }
+
+    /**
+     * @return sub-mask of the field, {@link #EMPTY} if field isn't in the mask
+     */
+    public FieldMask child(final String fieldName) {
+        return children.getOrDefault(fieldName, EMPTY);
+    }
+
+    /**
+     * @param path dotted path, e.g. <code>extraInfo.field1</code>
+     * @return sub-mask at the given path, {@link #EMPTY} if path isn't in the mask
+     */
+    public FieldMask get(final String path) {
+        FieldMask node = this;
+        int start = 0;
+        int end;
+        while ((end = path.indexOf(SEPARATOR, start)) >= 0) {
+            node = node.child(path.substring(start, end));
+            start = end + 1;
+        }
+        return node.child(path.substring(start));
+    }
+
+    public Set<String> fieldNames() {
+        return children.keySet();
+    }
+
+    public boolean isTerminal() {
+        return path != null;
+    }
+
+    public boolean isEmpty() {
+        return children.isEmpty();
+    }
+
+    /**
+     * @return original mask item ending on this node, null if node isn't terminal
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Checks this mask against allowed mask, where <code>*</code> allows any sub-field
+     * (e.g. allowed <code>extraInfo.*</code> allows <code>extraInfo.field1</code>, but not <code>extraInfo</code>).
+     *
+     * @return mask items not contained in the allowed mask
+     */
+    public List<String> invalidPaths(final FieldMask allowed) {
+        final List<String> invalidPaths = new ArrayList<>();
+        collectInvalidPaths(this, allowed, invalidPaths);
+        return invalidPaths;
+    }
+
+    private static void collectInvalidPaths(final FieldMask node, final FieldMask allowed, final List<String> invalidPaths) {
+        if (allowed.contains(WILDCARD)) {
+            return;
+        }
+        node.children.forEach((fieldName, child) -> {
+            final FieldMask allowedChild = allowed.children.get(fieldName);
+            if (allowedChild == null) {
+                collectPaths(child, invalidPaths);
+                return;
+            }
+            if (child.isTerminal() && !allowedChild.isTerminal()) {
+                invalidPaths.add(child.path);
+            }
+            collectInvalidPaths(child, allowedChild, invalidPaths);
+        });
+    }
+
+    private static void collectPaths(final FieldMask node, final List<String> paths) {
+        if (node.isTerminal()) {
+            paths.add(node.path);
+        }
+        node.children.values().forEach(child -> collectPaths(child, paths));
+    }
+
+    @Override
+    public String toString() {
+        final List<String> paths = new ArrayList<>();
+        collectPaths(this, paths);
+        return "FieldMask(" + paths + ")";
+    }
+
+    private static final class Builder {
+        private final Map<String, Builder> children = new LinkedHashMap<>();
+        private String path;
+
+        private Builder child(final String fieldName) {
+            return children.computeIfAbsent(fieldName, name -> new Builder());
+        }
+
+        private FieldMask build() {
+            if (children.isEmpty()) {
+                return new FieldMask(Collections.emptyMap(), path);
+            }
+            final Map<String, FieldMask> builtChildren = new LinkedHashMap<>();
+            children.forEach((fieldName, child) -> builtChildren.put(fieldName, child.build()));
+            return new FieldMask(Collections.unmodifiableMap(builtChildren), path);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package hr.axion.patch;
+
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Creates accessors used by {@link PatchUtils} to copy values from the input object to the target.<br/>
+ * Accessors are created once per patch plan and reused for every patch request.
+ *
+ * @see PatchAccessors
+ */
+public interface PatchAccessorFactory {
+
+    /**
+     * @param readMethod JavaBean read method
+     * @return function returning the property value of the given bean
+     */
+    Function<Object, Object> getter(Method readMethod);
+
+    /**
+     * @param writeMethod JavaBean write method
+     * @return consumer setting the property value (second argument) on the given bean (first argument)
+     */
+    BiConsumer<Object, Object> setter(Method writeMethod);
+}
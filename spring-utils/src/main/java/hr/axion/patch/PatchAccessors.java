@@ -0,0 +1,144 @@
+package hr.axion.patch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Available {@link PatchAccessorFactory} implementations.<br/>
+ * <ul>
+ *     <li>{@link #LAMBDA} - generated getter/setter lambdas (default), JIT can inline them like a direct call</li>
+ *     <li>{@link #METHOD_HANDLE} - {@link MethodHandle} invocation</li>
+ *     <li>{@link #REFLECTION} - plain {@link Method#invoke}</li>
+ * </ul>
+ * If an accessor can't be generated (e.g. class isn't accessible from this module or classloader),
+ * the next backend in the list above is used.
+ */
+public final class PatchAccessors {
+
+    static Logger logger = LoggerFactory.getLogger(PatchAccessors.class);
+
+    public static final PatchAccessorFactory REFLECTION = new PatchAccessorFactory() {
+        @Override
+        public Function<Object, Object> getter(final Method readMethod) {
+            return bean -> invoke(readMethod, bean);
+        }
+
+        @Override
+        public BiConsumer<Object, Object> setter(final Method writeMethod) {
+            return (bean, value) -> invoke(writeMethod, bean, value);
+        }
+    };
+
+    public static final PatchAccessorFactory METHOD_HANDLE = new PatchAccessorFactory() {
+        @Override
+        public Function<Object, Object> getter(final Method readMethod) {
+            try {
+                final MethodHandle handle = lookupFor(readMethod).unreflect(readMethod)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                return bean -> {
+                    try {
+                        return handle.invokeExact(bean);
+                    } catch (Throwable e) {
+                        throw rethrow(e);
+                    }
+                };
+            } catch (IllegalAccessException e) {
+                logger.debug("Using reflection for [{}]", readMethod, e);
+                return REFLECTION.getter(readMethod);
+            }
+        }
+
+        @Override
+        public BiConsumer<Object, Object> setter(final Method writeMethod) {
+            try {
+                final MethodHandle handle = lookupFor(writeMethod).unreflect(writeMethod)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                return (bean, value) -> {
+                    try {
+                        handle.invokeExact(bean, value);
+                    } catch (Throwable e) {
+                        throw rethrow(e);
+                    }
+                };
+            } catch (IllegalAccessException e) {
+                logger.debug("Using reflection for [{}]", writeMethod, e);
+                return REFLECTION.setter(writeMethod);
+            }
+        }
+    };
+
+    public static final PatchAccessorFactory LAMBDA = new PatchAccessorFactory() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public Function<Object, Object> getter(final Method readMethod) {
+            try {
+                final MethodHandles.Lookup lookup = lookupFor(readMethod);
+                final MethodHandle handle = lookup.unreflect(readMethod);
+                final CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        handle.type().wrap());
+                return (Function<Object, Object>) callSite.getTarget().invokeExact();
+            } catch (Throwable e) {
+                logger.debug("Using method handle for [{}]", readMethod, e);
+                return METHOD_HANDLE.getter(readMethod);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public BiConsumer<Object, Object> setter(final Method writeMethod) {
+            try {
+                final MethodHandles.Lookup lookup = lookupFor(writeMethod);
+                final MethodHandle handle = lookup.unreflect(writeMethod);
+                final CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        handle.type().wrap().changeReturnType(void.class));
+                return (BiConsumer<Object, Object>) callSite.getTarget().invokeExact();
+            } catch (Throwable e) {
+                logger.debug("Using method handle for [{}]", writeMethod, e);
+                return METHOD_HANDLE.setter(writeMethod);
+            }
+        }
+    };
+
+    private PatchAccessors() {
+    }
+
+    private static MethodHandles.Lookup lookupFor(final Method method) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+    }
+
+    private static Object invoke(final Method method, final Object bean, final Object... args) {
+        try {
+            return method.invoke(bean, args);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(final Throwable e) {
+        if (e instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (e instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(e);
+    }
+}
@@ -0,0 +1,40 @@
+package hr.axion.patch;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Typed patch applier for an input class and its {@link PatchTarget}.<br/>
+ * Implementations are generated by <code>spring-utils-processor</code>, named
+ * <code>[InputClass]_PatchApplier</code> and placed in the package of the input class
+ * (nested classes are joined with <code>_</code>, e.g. <code>Outer_Inner_PatchApplier</code>).
+ *
+ * @param <I> patch input type
+ * @param <T> patch target type
+ */
+public interface PatchApplier<I, T> {
+
+    Class<I> inputType();
+
+    Class<T> targetType();
+
+    /**
+     * Same as {@link PatchUtils#getPatchFieldsForClass(Class)} for the input type
+     */
+    List<String> patchFields();
+
+    /**
+     * Copies fields contained in the field mask from input to target, field errors are logged
+     * (same as {@link PatchUtils#applyPatchValuesToTarget(FieldMask, Object, Object)})
+     */
+    default void apply(FieldMask fieldMask, I input, T target) {
+        apply(fieldMask, input, target, PatchUtils.LOG_ERROR);
+    }
+
+    /**
+     * Copies fields contained in the field mask from input to target
+     *
+     * @param errorHandler called with the field path and error, processing continues with the next field
+     */
+    void apply(FieldMask fieldMask, I input, T target, BiConsumer<String, Exception> errorHandler);
+}
@@ -0,0 +1,53 @@
+package hr.axion.patch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup of generated {@link PatchApplier} classes, result (also missing applier) is cached per input class.
+ */
+final class PatchAppliers {
+
+    static Logger logger = LoggerFactory.getLogger(PatchAppliers.class);
+
+    static final String APPLIER_SUFFIX = "_PatchApplier";
+
+    private static final Map<Class<?>, Optional<PatchApplier<?, ?>>> APPLIERS = new ConcurrentHashMap<>();
+
+    private PatchAppliers() {
+    }
+
+    static Optional<PatchApplier<?, ?>> find(final Class<?> inputClass) {
+        return APPLIERS.computeIfAbsent(inputClass, PatchAppliers::load);
+    }
+
+    private static Optional<PatchApplier<?, ?>> load(final Class<?> inputClass) {
+        // appliers are generated only for @PatchTarget classes
+        if (!inputClass.isAnnotationPresent(PatchTarget.class)) {
+            return Optional.empty();
+        }
+        try {
+            final Class<?> applierClass = Class.forName(applierClassName(inputClass), true, inputClass.getClassLoader());
+            return Optional.of((PatchApplier<?, ?>) applierClass.getDeclaredConstructor().newInstance());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            logger.warn(String.format("Error while loading patch applier for [%s], using reflection", inputClass.getName()), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return e.g. <code>com.example.Outer_Inner_PatchApplier</code> for <code>com.example.Outer$Inner</code>
+     */
+    static String applierClassName(final Class<?> inputClass) {
+        final String packageName = inputClass.getPackageName();
+        final String localName = packageName.isEmpty() ?
+                inputClass.getName() : inputClass.getName().substring(packageName.length() + 1);
+        return (packageName.isEmpty() ? "" : packageName + ".") + localName.replace('$', '_') + APPLIER_SUFFIX;
+    }
+}
@@ -0,0 +1,86 @@
+package hr.axion.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.lang3.reflect.FieldUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Allowed field masks of a patch input class, computed once per class.<br/>
+ * Metadata is kept in a {@link ClassValue}, so it's bound to the class and released with its classloader.
+ */
+public final class PatchMetadata {
+
+    private static final ClassValue<PatchMetadata> METADATA = new ClassValue<>() {
+        @Override
+        protected PatchMetadata computeValue(final Class<?> type) {
+            return new PatchMetadata(type);
+        }
+    };
+
+    private final List<String> allowedFields;
+    private final Set<String> allowedFieldSet;
+    private final FieldMask allowedMask;
+
+    private PatchMetadata(final Class<?> objectClass) {
+        final List<String> fields = PatchAppliers.find(objectClass)
+                .<List<String>>map(PatchApplier::patchFields)
+                .orElseGet(() -> collectPatchFields(objectClass, "", new ArrayList<>()));
+        this.allowedFields = List.copyOf(fields);
+        this.allowedFieldSet = Set.copyOf(fields);
+        this.allowedMask = FieldMask.of(fields);
+    }
+
+    public static PatchMetadata forClass(final Class<?> objectClass) {
+        return METADATA.get(objectClass);
+    }
+
+    /**
+     * Computes metadata ahead of the first request
+     */
+    public static void warmUp(final Collection<Class<?>> objectClasses) {
+        objectClasses.forEach(PatchMetadata::forClass);
+    }
+
+    /**
+     * @return [ field1, field2, field3.sub_field1, field3.sub_field2, json_field.*, .. ]
+     */
+    public List<String> getAllowedFields() {
+        return allowedFields;
+    }
+
+    /**
+     * @return true if the mask item is allowed as is (without JsonNode wildcard matching)
+     */
+    public boolean isAllowedField(final String fieldMask) {
+        return allowedFieldSet.contains(fieldMask);
+    }
+
+    /**
+     * @return allowed fields as mask index, JsonNode fields end with {@link FieldMask#WILDCARD}
+     */
+    public FieldMask getAllowedMask() {
+        return allowedMask;
+    }
+
+    /**
+     * Iterate over class and it's sub-property classes to retrieve all possible field mask values
+     */
+    private static List<String> collectPatchFields(final Class<?> objectClass, final String prefix,
+                                                   final List<String> fieldNames) {
+        FieldUtils.getFieldsListWithAnnotation(objectClass, PatchProperty.class)
+                .forEach(patchField -> {
+                    if (PatchUtils.isFieldNonCustomType(patchField)) {
+                        fieldNames.add(prefix + patchField.getName());
+                    } else if (patchField.getType().equals(JsonNode.class)) {
+                        fieldNames.add(prefix + patchField.getName() + ".*");
+                    } else {
+                        collectPatchFields(patchField.getType(), prefix + patchField.getName() + ".", fieldNames);
+                    }
+                });
+        return fieldNames;
+    }
+}
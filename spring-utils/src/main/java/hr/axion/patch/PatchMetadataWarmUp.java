@@ -0,0 +1,53 @@
+package hr.axion.patch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Computes {@link PatchMetadata} for data types of all <code>@ValidatePatchRequest</code> controller parameters
+ * on startup, so the first PATCH requests don't pay for the class scan.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnClass(RequestMappingHandlerMapping.class)
+@ConditionalOnProperty(value = "web.patch.warm-up.enabled", matchIfMissing = true)
+public class PatchMetadataWarmUp {
+
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMappings;
+
+    public PatchMetadataWarmUp(final ObjectProvider<RequestMappingHandlerMapping> handlerMappings) {
+        this.handlerMappings = handlerMappings;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void warmUp() {
+        final Set<Class<?>> dataTypes = new LinkedHashSet<>();
+        handlerMappings.orderedStream().forEach(handlerMapping ->
+                handlerMapping.getHandlerMethods().values().forEach(handlerMethod -> {
+                    for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+                        if (parameter.hasParameterAnnotation(ValidatePatchRequest.class)) {
+                            final Class<?> dataType = ResolvableType.forMethodParameter(parameter)
+                                    .as(PatchRequestInterface.class)
+                                    .getGeneric(0)
+                                    .resolve();
+                            if (dataType != null) {
+                                dataTypes.add(dataType);
+                            }
+                        }
+                    }
+                }));
+        PatchMetadata.warmUp(dataTypes);
+        log.debug("Patch metadata computed for {}", dataTypes);
+    }
+}
@@ -0,0 +1,150 @@
+package hr.axion.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.lang3.reflect.FieldUtils;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Resolved patch plan for a (input class, target class) pair.<br/>
+ * Patchable fields and their read/write methods are looked up once and cached, so applying a patch
+ * doesn't repeat {@link FieldUtils#getFieldsListWithAnnotation} and {@link PropertyDescriptor} introspection
+ * on every request. Read/write methods are turned into accessors by the configured {@link PatchAccessorFactory}.
+ */
+final class PatchPlan {
+
+    private static final Map<PlanKey, PatchPlan> PLANS = new ConcurrentHashMap<>();
+
+    private static volatile PatchAccessorFactory accessorFactory = PatchAccessors.LAMBDA;
+
+    private final Class<?> targetClass;
+    private final List<Step> steps;
+    private final Map<String, Step> stepsByName;
+
+    private PatchPlan(final Class<?> inputClass, final Class<?> targetClass, final String prefix) {
+        this.targetClass = targetClass;
+        final List<Step> resolvedSteps = new ArrayList<>();
+        final Map<String, Step> resolvedStepsByName = new LinkedHashMap<>();
+        FieldUtils.getFieldsListWithAnnotation(inputClass, PatchProperty.class)
+                .forEach(patchField -> {
+                    final Step step = resolveStep(patchField, inputClass, targetClass, prefix);
+                    resolvedSteps.add(step);
+                    // field of the class hides field with the same name from super class
+                    resolvedStepsByName.putIfAbsent(step.name(), step);
+                });
+        this.steps = Collections.unmodifiableList(resolvedSteps);
+        this.stepsByName = Collections.unmodifiableMap(resolvedStepsByName);
+    }
+
+    /**
+     * Returns cached plan for given classes, nested plans are resolved with the prefix of the parent field.
+     */
+    static PatchPlan of(final Class<?> inputClass, final Class<?> targetClass, final String prefix) {
+        // nested plans are resolved lazily while applying, so computeIfAbsent is never called recursively
+        return PLANS.computeIfAbsent(new PlanKey(inputClass, targetClass, prefix),
+                key -> new PatchPlan(key.inputClass(), key.targetClass(), key.prefix()));
+    }
+
+    /**
+     * Sets accessor factory used for new plans and drops already resolved plans
+     */
+    static void setAccessorFactory(final PatchAccessorFactory factory) {
+        accessorFactory = factory;
+        PLANS.clear();
+    }
+
+    Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return step of the input field with given name, null if field isn't patchable
+     */
+    Step getStep(final String name) {
+        return stepsByName.get(name);
+    }
+
+    private static Step resolveStep(final Field patchField, final Class<?> inputClass, final Class<?> targetClass,
+                                    final String prefix) {
+        final PatchProperty patchProperty = patchField.getAnnotation(PatchProperty.class);
+        final String name = patchField.getName();
+        final String fieldWithPrefix = prefix + name;
+        final Type valueType = patchField.getGenericType();
+        final Kind kind;
+        if (PatchUtils.isFieldNonCustomType(patchField)) {
+            kind = Kind.VALUE;
+        } else if (patchField.getType().equals(JsonNode.class)) {
+            kind = Kind.JSON_NODE;
+        } else {
+            kind = Kind.NESTED;
+        }
+        final PatchAccessorFactory factory = accessorFactory;
+        try {
+            final PropertyDescriptor pdInput = new PropertyDescriptor(name, inputClass);
+            if (kind == Kind.NESTED) {
+                return new Step(kind, name, fieldWithPrefix, fieldWithPrefix + ".", valueType,
+                        factory.getter(pdInput.getReadMethod()), null, null, null);
+            }
+            // if annotation value is empty, use input object field name
+            final String targetFieldName = patchProperty.mapToField().isEmpty() ? name : patchProperty.mapToField();
+            final PropertyDescriptor pdTarget = new PropertyDescriptor(targetFieldName, targetClass);
+            return new Step(kind, name, fieldWithPrefix, fieldWithPrefix + ".", valueType,
+                    factory.getter(pdInput.getReadMethod()),
+                    kind == Kind.JSON_NODE ? factory.getter(pdTarget.getReadMethod()) : null,
+                    factory.setter(pdTarget.getWriteMethod()), null);
+        } catch (IntrospectionException e) {
+            // keep the error and report it when the field is being patched
+            return new Step(kind, name, fieldWithPrefix, fieldWithPrefix + ".", valueType, null, null, null, e);
+        }
+    }
+
+    enum Kind {
+        /**
+         * Primitive Java types (or forced as primitive) copied directly to the target
+         */
+        VALUE,
+        /**
+         * JsonNode fields merged into the target node
+         */
+        JSON_NODE,
+        /**
+         * Custom types whose fields are applied to the same target
+         */
+        NESTED
+    }
+
+    /**
+     * Single patchable field with resolved accessors.
+     *
+     * @param name        field name, looked up in the field mask of the current level
+     * @param path        field name with prefix of parent fields (used in error messages)
+     * @param childPrefix prefix used for sub-fields of this field
+     * @param valueType   declared type of the input field
+     * @param inputRead   getter of the input object
+     * @param targetRead  getter of the target object (set only for {@link Kind#JSON_NODE})
+     * @param targetWrite setter of the target object (not set for {@link Kind#NESTED})
+     * @param error       introspection error, if accessors couldn't be resolved
+     */
+    record Step(Kind kind, String name, String path, String childPrefix, Type valueType,
+                Function<Object, Object> inputRead, Function<Object, Object> targetRead,
+                BiConsumer<Object, Object> targetWrite, IntrospectionException error) {
+    }
+
+    private record PlanKey(Class<?> inputClass, Class<?> targetClass, String prefix) {
+    }
+}
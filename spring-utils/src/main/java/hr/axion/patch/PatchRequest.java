@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotNull;
 import java.beans.JavaBean;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 
 @JavaBean
@@ -14,6 +15,10 @@ public class PatchRequest<T> implements PatchRequestInterface<T> {
 
     private @NotNull List<String> fieldMask = new ArrayList<>();
 
+    // built on first use, rebuilt when the mask content changes (list can be modified in place)
+    private transient FieldMask fieldMaskIndex;
+    private transient List<String> fieldMaskIndexSource;
+
     public T getData() {
         return this.data;
     }
@@ -30,6 +35,15 @@ public class PatchRequest<T> implements PatchRequestInterface<T> {
         this.fieldMask = fieldMask;
     }
 
+    @Override
+    public FieldMask fieldMaskIndex() {
+        if (fieldMaskIndex == null || !Objects.equals(fieldMaskIndexSource, fieldMask)) {
+            fieldMaskIndexSource = fieldMask == null ? null : new ArrayList<>(fieldMask);
+            fieldMaskIndex = FieldMask.of(fieldMask);
+        }
+        return fieldMaskIndex;
+    }
+
     public String toString() {
         return "PatchRequest(data=" + this.getData() + ", fieldMask=" + this.getFieldMask() + ")";
     }
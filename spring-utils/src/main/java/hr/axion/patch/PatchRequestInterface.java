@@ -11,4 +11,11 @@ public interface PatchRequestInterface<T> {
     T getData();
 
     List<String> getFieldMask();
+
+    /**
+     * Field mask index shared by validation and patching of the request
+     */
+    default FieldMask fieldMaskIndex() {
+        return FieldMask.of(getFieldMask());
+    }
 }
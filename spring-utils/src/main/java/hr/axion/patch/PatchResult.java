@@ -0,0 +1,44 @@
+package hr.axion.patch;
+
+import java.util.List;
+
+/**
+ * Result of applying a patch to one target of a batch
+ *
+ * @param <T> target type
+ */
+public class PatchResult<T> {
+
+    private final T target;
+    private final List<FieldError> errors;
+
+    public PatchResult(final T target, final List<FieldError> errors) {
+        this.target = target;
+        this.errors = List.copyOf(errors);
+    }
+
+    public T getTarget() {
+        return target;
+    }
+
+    public List<FieldError> getErrors() {
+        return errors;
+    }
+
+    public boolean isSuccessful() {
+        return errors.isEmpty();
+    }
+
+    public String toString() {
+        return "PatchResult(target=" + this.getTarget() + ", errors=" + this.getErrors() + ")";
+    }
+
+    /**
+     * Error while patching a field
+     *
+     * @param field field with prefix, e.g. address.street (null if error isn't related to a single field)
+     * @param cause error thrown while patching
+     */
+    public record FieldError(String field, Exception cause) {
+    }
+}
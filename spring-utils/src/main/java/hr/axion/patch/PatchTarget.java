@@ -0,0 +1,20 @@
+package hr.axion.patch;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks patch input class (with {@link PatchProperty} fields) and the target class it's applied to.<br/>
+ * With <code>spring-utils-processor</code> on the annotation processor path, a {@link PatchApplier}
+ * is generated at compile time and used by {@link PatchUtils} instead of reflection.
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PatchTarget {
+    /**
+     * Target (e.g. entity) class patched with the annotated input class
+     */
+    Class<?> value();
+}
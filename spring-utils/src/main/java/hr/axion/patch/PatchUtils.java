@@ -4,18 +4,20 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 /**
  * Missing @JsonProperty check of JSON names
@@ -24,7 +26,16 @@ public class PatchUtils {
 
     static Logger logger = LoggerFactory.getLogger(PatchUtils.class);
 
-    private static boolean isFieldNonCustomType(final Field check) {
+    /**
+     * Minimal batch size split across fork-join pool
+     */
+    public static final int PARALLEL_BATCH_THRESHOLD = 1_000;
+
+    // don't throw, but write to console
+    static final BiConsumer<String, Exception> LOG_ERROR = (field, e) ->
+            logger.error(String.format("Error while processing patch field [%s]", field), e);
+
+    static boolean isFieldNonCustomType(final Field check) {
         final PatchProperty property = check.getAnnotation(PatchProperty.class);
         if (property != null && property.forceAsPrimitive()) {
             return true;
@@ -38,163 +49,285 @@ public class PatchUtils {
      * @return [ field1, field2, field3.sub_field1, field3.sub_field2, .. ]
      */
     public static List<String> getPatchFieldsForClass(final Class<?> objectClass) {
-        return getPatchFieldsForClass(objectClass, "");
-    }
-
-    private static List<String> getPatchFieldsForClass(final Class<?> objectClass, String prefix) {
-        final List<String> fieldNames = new ArrayList<>();
-        FieldUtils.getFieldsListWithAnnotation(objectClass, PatchProperty.class)
-                .forEach(patchField -> {
-                    if (isFieldNonCustomType(patchField)) {
-                        fieldNames.add(patchField.getName());
-                    } else if (patchField.getType().equals(JsonNode.class)) {
-                        fieldNames.add(patchField.getName() + ".*");
-                    } else {
-                        final List<String> subItems = getPatchFieldsForClass(patchField.getType(),
-                                prefix + patchField.getName() + ".");
-                        if (!subItems.isEmpty()) {
-                            fieldNames.addAll(subItems);
-                        }
-                    }
-                });
-        // apply prefix
-        return fieldNames.stream().map(it -> prefix + it).toList();
+        return PatchMetadata.forClass(objectClass).getAllowedFields();
+    }
+
+    /**
+     * Sets backend used to access input and target properties, {@link PatchAccessors#LAMBDA} by default.
+     * Already resolved patch plans are dropped.
+     */
+    public static void setAccessorFactory(final PatchAccessorFactory accessorFactory) {
+        PatchPlan.setAccessorFactory(accessorFactory);
     }
 
     public static <T> T applyPatchValuesToTarget(final PatchRequestInterface<?> patchRequest, final T target) {
-        return applyPatchValuesToTarget(patchRequest.getFieldMask(), patchRequest.getData(), target);
+        return applyPatchValuesToTarget(patchRequest.fieldMaskIndex(), patchRequest.getData(), target);
     }
 
     public static <T> T applyPatchValuesToTarget(final List<String> fieldMasks, final Object input,
                                                  final T target) {
-        return applyPatchValuesToTarget(fieldMasks, input, target, "");
+        return applyPatchValuesToTarget(FieldMask.of(fieldMasks), input, target);
     }
 
+    @SuppressWarnings("unchecked")
+    public static <T> T applyPatchValuesToTarget(final FieldMask fieldMask, final Object input, final T target) {
+        // use generated applier if exists
+        final Optional<PatchApplier<?, ?>> applier = PatchAppliers.find(input.getClass());
+        if (applier.isPresent() && applier.get().targetType().isInstance(target)) {
+            ((PatchApplier<Object, Object>) applier.get()).apply(fieldMask, input, target);
+            return target;
+        }
+        applyPlan(PatchPlan.of(input.getClass(), target.getClass(), ""), fieldMask, input, target, LOG_ERROR);
+        return target;
+    }
 
-    private static <T> T applyPatchValuesToTarget(final List<String> fieldMasks, final Object input,
-                                                  final T target, final String prefix) {
-        final List<Field> patchableFields = FieldUtils
-                .getFieldsListWithAnnotation(input.getClass(), PatchProperty.class);
-        patchableFields.forEach(patchField -> {
-            // process normal attributes
-            if (isFieldNonCustomType(patchField)) {
-                final PatchProperty patchProperty = patchField.getAnnotation(PatchProperty.class);
-                // ignore null values and fields outside fieldMask
-                final String fieldWithPrefix = prefix + patchField.getName();
-                if (patchProperty.mapToField() != null && fieldMasks.contains(fieldWithPrefix)) {
-                    try {
-                        // if annotation value is empty, use input object field name
-                        final String targetFieldName = patchProperty.mapToField().isEmpty() ?
-                                patchField.getName() : patchProperty.mapToField();
-                        // copy input value (including null) to target object
-                        final PropertyDescriptor pdInput = new PropertyDescriptor(patchField.getName(), input.getClass());
-                        final PropertyDescriptor pdTarget = new PropertyDescriptor(targetFieldName, target.getClass());
-                        pdTarget.getWriteMethod().invoke(target, pdInput.getReadMethod().invoke(input));
-                    } catch (IntrospectionException | IllegalAccessException | InvocationTargetException e) {
-                        // don't throw, but write to console
-                        logger.error(String.format("Error while processing patch field [%s]", fieldWithPrefix), e);
+    /**
+     * Applies the same patch request to all targets, field mask and patch plan are resolved once for the batch.
+     * Errors are returned per target instead of being logged.
+     */
+    public static <T> List<PatchResult<T>> applyPatchValuesToTargets(final PatchRequestInterface<?> patchRequest,
+                                                                     final Collection<T> targets) {
+        return applyPatchValuesToTargets(patchRequest, targets.stream());
+    }
+
+    public static <T> List<PatchResult<T>> applyPatchValuesToTargets(final PatchRequestInterface<?> patchRequest,
+                                                                     final Stream<T> targets) {
+        final BatchPatch batchPatch = new BatchPatch(patchRequest.fieldMaskIndex(), patchRequest.getData());
+        return targets.map(batchPatch::apply).toList();
+    }
+
+    /**
+     * Same as {@link #applyPatchValuesToTargets(PatchRequestInterface, Collection)}, batches with at least
+     * {@link #PARALLEL_BATCH_THRESHOLD} targets are split across the given pool. Results keep the order of targets.
+     */
+    public static <T> List<PatchResult<T>> applyPatchValuesToTargets(final PatchRequestInterface<?> patchRequest,
+                                                                     final Collection<T> targets,
+                                                                     final ForkJoinPool pool) {
+        if (targets.size() < PARALLEL_BATCH_THRESHOLD) {
+            return applyPatchValuesToTargets(patchRequest, targets);
+        }
+        final BatchPatch batchPatch = new BatchPatch(patchRequest.fieldMaskIndex(), patchRequest.getData());
+        // parallel stream started from the pool runs in that pool
+        return pool.submit(() -> targets.parallelStream().map(batchPatch::apply).toList()).join();
+    }
+
+    private static void applyPlan(final PatchPlan plan, final FieldMask fieldMask, final Object input,
+                                  final Object target, final BiConsumer<String, Exception> errorHandler) {
+        for (PatchPlan.Step step : plan.getSteps()) {
+            switch (step.kind()) {
+                // process normal attributes
+                case VALUE -> {
+                    // ignore fields outside fieldMask
+                    if (fieldMask.contains(step.name())) {
+                        try {
+                            if (step.error() != null) {
+                                throw step.error();
+                            }
+                            // copy input value (including null) to target object
+                            step.targetWrite().accept(target, step.inputRead().apply(input));
+                        } catch (IntrospectionException | RuntimeException e) {
+                            errorHandler.accept(step.path(), e);
+                        }
                     }
                 }
+                case JSON_NODE -> {
+                    try {
+                        if (step.error() != null) {
+                            throw step.error();
+                        }
+                        final JsonNode updateNode = (JsonNode) step.inputRead().apply(input);
+                        // update node needs to exists to write
+                        if (updateNode != null) {
+                            final JsonNode mainNode = (JsonNode) step.targetRead().apply(target);
+                            step.targetWrite().accept(target,
+                                    patchJsonNode(fieldMask.child(step.name()), mainNode, updateNode));
+                        }
 
-            } else if (patchField.getType().equals(JsonNode.class)) {
-                final PatchProperty patchProperty = patchField.getAnnotation(PatchProperty.class);
-                final String fieldWithPrefix = prefix + patchField.getName();
-
-                // [ extraInfo, extraInfo.field1, extraInfo.field2 ] - if extraInfo is here
-                // get all sub node mask elements (with ".")
-                final List<String> subNodes = fieldMasks.stream()
-                        .filter(filter -> filter.startsWith(fieldWithPrefix + "."))
-                        .toList();
-                try {
-                    // if annotation value is empty, use input object field name
-                    final String targetFieldName = patchProperty.mapToField().isEmpty() ?
-                            patchField.getName() : patchProperty.mapToField();
-                    // copy input value (including null) to target object
-                    final PropertyDescriptor pdInput = new PropertyDescriptor(patchField.getName(), input.getClass());
-                    final PropertyDescriptor pdTarget = new PropertyDescriptor(targetFieldName, target.getClass());
-
-                    final JsonNode updateNode = (JsonNode) pdInput.getReadMethod().invoke(input);
-                    JsonNode mainNode = (JsonNode) pdTarget.getReadMethod().invoke(target);
-                    // update node needs to exists to write
-                    if (updateNode != null) {
-                        // if main node doesn't exists, just apply update node
-                        if (mainNode == null) {
-                            mainNode = JsonNodeFactory.instance.objectNode();
+                    } catch (IntrospectionException | RuntimeException e) {
+                        errorHandler.accept(step.path(), e);
+                    }
+                }
+                // process child elements
+                case NESTED -> {
+                    try {
+                        if (step.error() != null) {
+                            throw step.error();
                         }
-                        clearUpdateNodeFromNonMaskFields(updateNode, subNodes, fieldWithPrefix + ".");
-                        clearOriginalNodeByRemovingFieldMaskItems(mainNode, subNodes, fieldWithPrefix + ".");
-                        mergeJsonNodes(mainNode, updateNode);
-                        pdTarget.getWriteMethod().invoke(target, mainNode);
+                        final Object childInput = step.inputRead().apply(input);
+                        if (childInput != null) {
+                            applyPlan(PatchPlan.of(childInput.getClass(), target.getClass(), step.childPrefix()),
+                                    fieldMask.child(step.name()), childInput, target, errorHandler);
+                        }
+                    } catch (IntrospectionException | RuntimeException e) {
+                        errorHandler.accept(step.path(), e);
                     }
+                }
+            }
+        }
+    }
 
-                } catch (IntrospectionException | IllegalAccessException | InvocationTargetException e) {
-                    // don't throw, but write to console
-                    logger.error(String.format("Error while processing patch field [%s]", fieldWithPrefix), e);
+    /**
+     * Input, field mask and generated applier/plan resolved once and applied to many targets
+     */
+    private static final class BatchPatch {
+        private final FieldMask fieldMask;
+        private final Object input;
+        private final Optional<PatchApplier<?, ?>> applier;
+        private volatile PatchPlan plan;
+
+        private BatchPatch(final FieldMask fieldMask, final Object input) {
+            this.fieldMask = fieldMask;
+            this.input = input;
+            this.applier = PatchAppliers.find(input.getClass());
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> PatchResult<T> apply(final T target) {
+            final List<PatchResult.FieldError> errors = new ArrayList<>();
+            final BiConsumer<String, Exception> errorHandler =
+                    (field, e) -> errors.add(new PatchResult.FieldError(field, e));
+            try {
+                if (applier.isPresent() && applier.get().targetType().isInstance(target)) {
+                    ((PatchApplier<Object, Object>) applier.get()).apply(fieldMask, input, target, errorHandler);
+                } else {
+                    applyPlan(planFor(target), fieldMask, input, target, errorHandler);
                 }
+            } catch (RuntimeException e) {
+                errors.add(new PatchResult.FieldError(null, e));
+            }
+            return new PatchResult<>(target, errors);
+        }
+
+        private PatchPlan planFor(final Object target) {
+            final PatchPlan current = plan;
+            if (current != null && current.getTargetClass() == target.getClass()) {
+                return current;
+            }
+            final PatchPlan resolved = PatchPlan.of(input.getClass(), target.getClass(), "");
+            plan = resolved;
+            return resolved;
+        }
+    }
+
+    /**
+     * Applies update node fields contained in the JsonNode field mask to the original node
+     *
+     * @param nodeMask     mask of the JsonNode field, e.g. <code>fieldMask.child("extraInfo")</code>
+     * @param originalNode current target value, can be null
+     * @param updateNode   value from the patch input
+     * @return merged node that should be written to the target
+     */
+    public static JsonNode patchJsonNode(final FieldMask nodeMask, final JsonNode originalNode,
+                                         final JsonNode updateNode) {
+        // if main node doesn't exists, just apply update node
+        final JsonNode mainNode = originalNode == null ? JsonNodeFactory.instance.objectNode() : originalNode;
+        mergeMaskedJsonNodes(mainNode, updateNode, nodeMask);
+        return mainNode;
+    }
 
+    /**
+     * Single pass equivalent of {@link #clearUpdateNodeFromNonMaskFields}, {@link #clearOriginalNodeByRemovingFieldMaskItems}
+     * and {@link #mergeJsonNodes} - masked fields are removed from the original node and replaced with masked fields
+     * of the update node. Update node isn't modified, applied values are copied.
+     *
+     * @param nodeMask mask relative to the nodes, e.g. [ field1, field2.sub_field1 ] for extraInfo node
+     */
+    public static void mergeMaskedJsonNodes(final JsonNode originalNode, final JsonNode updateNode,
+                                            final FieldMask nodeMask) {
+        if (!(originalNode instanceof ObjectNode original)) {
+            return;
+        }
+        for (String field : nodeMask.fieldNames()) {
+            final FieldMask fieldMask = nodeMask.child(field);
+            if (fieldMask.isTerminal()) {
+                // replaced by update value or removed if update doesn't have it
+                original.remove(field);
             } else {
-                // process child elements
-                try {
-                    final PropertyDescriptor pdInput = new PropertyDescriptor(patchField.getName(), input.getClass());
-                    final Object childInput = pdInput.getReadMethod().invoke(input);
-                    if (childInput != null) {
-                        applyPatchValuesToTarget(fieldMasks, childInput, target, prefix + patchField.getName() + ".");
-                    }
-                } catch (IntrospectionException | IllegalAccessException | InvocationTargetException e) {
-                    // don't throw, but write to console
-                    logger.error(String.format("Error while processing patch field [%s]", patchField.getName()), e);
+                // sub-objects which aren't in the update are only cleared, others are handled below
+                final JsonNode value = original.get(field);
+                final JsonNode update = updateNode.get(field);
+                if (value != null && value.isObject() && (update == null || !update.isObject())) {
+                    clearOriginalNodeByRemovingFieldMaskItems(value, fieldMask);
                 }
             }
-        });
-        return target;
+        }
+        final Iterator<Map.Entry<String, JsonNode>> fields = updateNode.fields();
+        while (fields.hasNext()) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            final JsonNode update = field.getValue();
+            if (update.isObject()) {
+                final JsonNode value = original.get(field.getKey());
+                // if field exists and is an embedded object
+                if (value != null && value.isObject()) {
+                    mergeMaskedJsonNodes(value, update, nodeMask.child(field.getKey()));
+                } else {
+                    original.set(field.getKey(), copyMaskedFields(update, nodeMask.child(field.getKey())));
+                }
+            } else if (nodeMask.contains(field.getKey())) {
+                // Overwrite field
+                original.set(field.getKey(), update.deepCopy());
+            }
+        }
     }
 
+    /**
+     * Copy of the update node with embedded objects and masked fields only
+     */
+    private static ObjectNode copyMaskedFields(final JsonNode updateNode, final FieldMask nodeMask) {
+        final ObjectNode copy = JsonNodeFactory.instance.objectNode();
+        final Iterator<Map.Entry<String, JsonNode>> fields = updateNode.fields();
+        while (fields.hasNext()) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isObject()) {
+                copy.set(field.getKey(), copyMaskedFields(field.getValue(), nodeMask.child(field.getKey())));
+            } else if (nodeMask.contains(field.getKey())) {
+                copy.set(field.getKey(), field.getValue().deepCopy());
+            }
+        }
+        return copy;
+    }
 
+    /**
+     * @param fieldMasks all field masks, e.g. [ extraInfo.field1, extraInfo.field2 ]
+     * @param prefix     prefix of the node, e.g. <code>extraInfo.</code>
+     */
     public static void clearOriginalNodeByRemovingFieldMaskItems(final JsonNode node, final List<String> fieldMasks, final String prefix) {
+        clearOriginalNodeByRemovingFieldMaskItems(node, subMask(fieldMasks, prefix));
+    }
 
-        final List<String> fieldMasksWithoutPrefix = fieldMasks.stream()
-                .map(x -> StringUtils.replaceOnce(x, prefix, ""))
-                .toList();
-        final List<String> currentLevelFields = fieldMasksWithoutPrefix.stream()
-                .filter(x -> !x.contains("."))
-                .toList();
-        final List<String> nextLevelFields = fieldMasksWithoutPrefix.stream()
-                .filter(x -> x.contains("."))
-                .map(x -> Arrays.stream(x.split("\\.")).findFirst().get())
-                .toList();
-
-        for (String field : currentLevelFields) {
-            if (node instanceof ObjectNode && node.has(field)) {
+    public static void clearOriginalNodeByRemovingFieldMaskItems(final JsonNode node, final FieldMask nodeMask) {
+        for (String field : nodeMask.fieldNames()) {
+            if (nodeMask.contains(field) && node instanceof ObjectNode && node.has(field)) {
                 ((ObjectNode) node).remove(field);
             }
         }
-        for (String field : nextLevelFields) {
+        for (String field : nodeMask.fieldNames()) {
+            final FieldMask fieldMask = nodeMask.child(field);
             final JsonNode value = node.get(field);
-            if (value != null && value.isObject()) {
-                clearOriginalNodeByRemovingFieldMaskItems(value, fieldMasks, prefix + field + ".");
+            if (!fieldMask.isEmpty() && value != null && value.isObject()) {
+                clearOriginalNodeByRemovingFieldMaskItems(value, fieldMask);
             }
         }
     }
 
-
+    /**
+     * @param fieldMasks all field masks, e.g. [ extraInfo.field1, extraInfo.field2 ]
+     * @param prefix     prefix of the node, e.g. <code>extraInfo.</code>
+     */
     public static void clearUpdateNodeFromNonMaskFields(final JsonNode node, final List<String> fieldMasks, final String prefix) {
+        clearUpdateNodeFromNonMaskFields(node, subMask(fieldMasks, prefix));
+    }
 
-        final List<String> fieldMasksWithoutPrefix = fieldMasks.stream()
-                .map(x -> StringUtils.replaceOnce(x, prefix, ""))
-                .toList();
-        final List<String> currentLevelFields = fieldMasksWithoutPrefix.stream()
-                .filter(x -> !x.contains("."))
-                .toList();
-
+    public static void clearUpdateNodeFromNonMaskFields(final JsonNode node, final FieldMask nodeMask) {
         List<String> fieldNames = new ArrayList<>();
         node.fieldNames().forEachRemaining(fieldNames::add);
 
         for (String fieldName : fieldNames) {
             final JsonNode field = node.get(fieldName);
             if(field.isObject()) {
-                clearUpdateNodeFromNonMaskFields(field, fieldMasks, prefix + fieldName + ".");
+                clearUpdateNodeFromNonMaskFields(field, nodeMask.child(fieldName));
             } else {
-                if(!currentLevelFields.contains(fieldName)) {
+                if(!nodeMask.contains(fieldName)) {
                     if (node instanceof ObjectNode) {
                         ((ObjectNode) node).remove(fieldName);
                     }
@@ -221,6 +354,10 @@ public class PatchUtils {
         }
     }
 
+    private static FieldMask subMask(final List<String> fieldMasks, final String prefix) {
+        final FieldMask fieldMask = FieldMask.of(fieldMasks);
+        return prefix.isEmpty() ? fieldMask : fieldMask.get(StringUtils.removeEnd(prefix, "."));
+    }
 
 
 }
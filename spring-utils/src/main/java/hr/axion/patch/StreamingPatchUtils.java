@@ -0,0 +1,267 @@
+package hr.axion.patch;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.util.ClassUtil;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.beans.IntrospectionException;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Applies {@link PatchRequest} body to the target directly from the JSON token stream.<br/>
+ * Fields outside the field mask are skipped while parsing, so they are never bound to the data object
+ * or read into JsonNode trees. Result is the same as binding the request and calling
+ * {@link PatchUtils#applyPatchValuesToTarget(PatchRequestInterface, Object)}, except:
+ * <ul>
+ *     <li>masked fields missing in JSON are set to null (or primitive default), field initializers of the data class aren't used</li>
+ *     <li>JsonNode and sub-object fields without masked sub-fields are skipped</li>
+ * </ul>
+ * JSON properties are resolved with the object mapper's bean deserializer of the data class, so property names
+ * (naming strategy, <code>@JsonProperty</code>, <code>@JsonAlias</code>) and property deserializers
+ * (<code>@JsonFormat</code>, <code>@JsonDeserialize</code>) are the same as when binding the data object,
+ * field mask still uses Java field names. If the data class doesn't have a bean deserializer (e.g. custom
+ * deserializer of the class), JSON names are matched to field names and values are read by the field type only,
+ * masked fields missing in JSON are then left unchanged. Masked fields without a JSON property
+ * (e.g. <code>@JsonIgnore</code>) are never changed.<br/>
+ * JsonNode fields with masked sub-fields are still read as a whole tree (<code>readTree</code>) before merging,
+ * so large JsonNode values aren't streamed.<br/>
+ * Field mask isn't validated, use {@link FieldMask#invalidPaths(FieldMask)} if needed.
+ */
+public class StreamingPatchUtils {
+
+    static Logger logger = LoggerFactory.getLogger(StreamingPatchUtils.class);
+
+    private static final String DATA_FIELD = "data";
+    private static final String FIELD_MASK_FIELD = "fieldMask";
+    private static final TypeReference<List<String>> FIELD_MASK_TYPE = new TypeReference<>() {
+    };
+    // JSON names (with aliases) -> Java field names, per deserializer (deserializers are cached per object mapper)
+    private static final Map<JsonDeserializer<?>, Map<String, String>> FIELD_NAMES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private StreamingPatchUtils() {
+    }
+
+    /**
+     * Reads <code>{ "data": {...}, "fieldMask": [...] }</code> and applies masked data fields to the target.
+     * If data comes before the field mask, data tokens are buffered (not bound) until the mask is read.
+     *
+     * @param parser   parser positioned before or at the start of the request object
+     * @param dataType type of the data object, as in <code>PatchRequest&lt;T&gt;</code>
+     */
+    public static <T> T applyPatchValuesToTarget(final JsonParser parser, final Class<?> dataType, final T target,
+                                                 final ObjectMapper objectMapper) throws IOException {
+        if (parser.currentToken() == null) {
+            parser.nextToken();
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Patch request must be a JSON object, found " + parser.currentToken());
+        }
+        FieldMask fieldMask = null;
+        TokenBuffer bufferedData = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            parser.nextToken();
+            if (FIELD_MASK_FIELD.equals(fieldName)) {
+                fieldMask = FieldMask.of(objectMapper.readValue(parser, FIELD_MASK_TYPE));
+            } else if (DATA_FIELD.equals(fieldName) && fieldMask != null) {
+                applyDataToTarget(parser, dataType, fieldMask, target, objectMapper);
+            } else if (DATA_FIELD.equals(fieldName)) {
+                // field mask comes later
+                bufferedData = new TokenBuffer(parser);
+                bufferedData.copyCurrentStructure(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (bufferedData != null) {
+            try (JsonParser dataParser = bufferedData.asParser(objectMapper)) {
+                dataParser.nextToken();
+                applyDataToTarget(dataParser, dataType, fieldMask == null ? FieldMask.EMPTY : fieldMask, target,
+                        objectMapper);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Applies data object to the target
+     *
+     * @param parser parser positioned at the start of the data object
+     */
+    public static <T> T applyDataToTarget(final JsonParser parser, final Class<?> dataType, final FieldMask fieldMask,
+                                          final T target, final ObjectMapper objectMapper) throws IOException {
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            final DeserializationContext context = ((DefaultDeserializationContext) objectMapper.getDeserializationContext())
+                    .createInstance(objectMapper.getDeserializationConfig(), parser, objectMapper.getInjectableValues());
+            applyObject(parser, dataType, fieldMask, target, "", objectMapper, context);
+        } else {
+            // null data
+            parser.skipChildren();
+        }
+        return target;
+    }
+
+    private static void applyObject(final JsonParser parser, final Class<?> inputClass, final FieldMask fieldMask,
+                                    final Object target, final String prefix, final ObjectMapper objectMapper,
+                                    final DeserializationContext context) throws IOException {
+        final PatchPlan plan = PatchPlan.of(inputClass, target.getClass(), prefix);
+        final JsonDeserializer<Object> deserializer = context.findRootValueDeserializer(context.constructType(inputClass));
+        final Map<String, String> fieldNames = fieldNames(deserializer, context);
+        final Set<String> appliedFields = new HashSet<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String jsonName = parser.currentName();
+            final JsonToken valueToken = parser.nextToken();
+            final String fieldName = fieldNames == null ? jsonName : fieldNames.get(jsonName);
+            final PatchPlan.Step step = fieldName == null ? null : plan.getStep(fieldName);
+            if (step == null) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (step.kind()) {
+                case VALUE -> {
+                    if (fieldMask.contains(fieldName)) {
+                        appliedFields.add(fieldName);
+                        final Object value = readValue(parser, jsonName, step, deserializer, objectMapper, context);
+                        writeValue(step, target, value);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case JSON_NODE -> {
+                    final FieldMask nodeMask = fieldMask.child(fieldName);
+                    if (valueToken == JsonToken.VALUE_NULL || nodeMask.isEmpty()) {
+                        parser.skipChildren();
+                    } else {
+                        final JsonNode updateNode = objectMapper.readTree(parser);
+                        writeJsonNode(step, target, nodeMask, updateNode);
+                    }
+                }
+                case NESTED -> {
+                    final FieldMask childMask = fieldMask.child(fieldName);
+                    if (step.error() != null) {
+                        // same as PatchUtils, nested field can't be processed
+                        logError(step, step.error());
+                        parser.skipChildren();
+                    } else if (valueToken == JsonToken.START_OBJECT && !childMask.isEmpty()) {
+                        applyObject(parser, objectMapper.constructType(step.valueType()).getRawClass(), childMask,
+                                target, step.childPrefix(), objectMapper, context);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        if (fieldNames == null) {
+            // JSON names of the fields are unknown, missing fields can't be told apart from renamed ones
+            return;
+        }
+        // masked fields missing in JSON are null in the data object
+        for (PatchPlan.Step step : plan.getSteps()) {
+            if (step.kind() == PatchPlan.Kind.VALUE && fieldMask.contains(step.name())
+                    && !appliedFields.contains(step.name()) && fieldNames.containsValue(step.name())) {
+                writeValue(step, target, null);
+            }
+        }
+    }
+
+    /**
+     * @return JSON names (with aliases) of deserializable properties mapped to Java field names,
+     * null if the deserializer isn't a bean deserializer
+     */
+    private static Map<String, String> fieldNames(final JsonDeserializer<?> deserializer,
+                                                  final DeserializationContext context) {
+        if (!(deserializer instanceof BeanDeserializerBase beanDeserializer)) {
+            return null;
+        }
+        return FIELD_NAMES.computeIfAbsent(deserializer, key -> resolveFieldNames(beanDeserializer, context));
+    }
+
+    private static Map<String, String> resolveFieldNames(final BeanDeserializerBase deserializer,
+                                                         final DeserializationContext context) {
+        final Map<String, String> internalNames = new HashMap<>();
+        for (BeanPropertyDefinition property : context.getConfig().introspect(deserializer.getValueType()).findProperties()) {
+            internalNames.put(property.getName(), property.getInternalName());
+        }
+        final Map<String, String> fieldNames = new HashMap<>();
+        deserializer.properties().forEachRemaining(property -> {
+            final String internalName = internalNames.get(property.getName());
+            if (internalName != null) {
+                fieldNames.put(property.getName(), internalName);
+                for (PropertyName alias : property.findAliases(context.getConfig())) {
+                    fieldNames.putIfAbsent(alias.getSimpleName(), internalName);
+                }
+            }
+        });
+        return Collections.unmodifiableMap(fieldNames);
+    }
+
+    /**
+     * Reads the value with the property deserializer (field annotations applied), or by the field type
+     * if the data class has no bean deserializer
+     */
+    private static Object readValue(final JsonParser parser, final String jsonName, final PatchPlan.Step step,
+                                    final JsonDeserializer<?> deserializer, final ObjectMapper objectMapper,
+                                    final DeserializationContext context) throws IOException {
+        final SettableBeanProperty property = deserializer instanceof BeanDeserializerBase beanDeserializer
+                ? beanDeserializer.findProperty(jsonName) : null;
+        if (property == null) {
+            return objectMapper.readValue(parser, objectMapper.constructType(step.valueType()));
+        }
+        return property.deserialize(parser, context);
+    }
+
+    private static void writeValue(final PatchPlan.Step step, final Object target, final Object value) {
+        try {
+            if (step.error() != null) {
+                throw step.error();
+            }
+            step.targetWrite().accept(target, value == null ? defaultValue(step.valueType()) : value);
+        } catch (IntrospectionException | RuntimeException e) {
+            logError(step, e);
+        }
+    }
+
+    private static void writeJsonNode(final PatchPlan.Step step, final Object target, final FieldMask nodeMask,
+                                      final JsonNode updateNode) {
+        try {
+            if (step.error() != null) {
+                throw step.error();
+            }
+            final JsonNode mainNode = (JsonNode) step.targetRead().apply(target);
+            step.targetWrite().accept(target, PatchUtils.patchJsonNode(nodeMask, mainNode, updateNode));
+        } catch (IntrospectionException | RuntimeException e) {
+            logError(step, e);
+        }
+    }
+
+    private static void logError(final PatchPlan.Step step, final Exception e) {
+        // don't throw, but write to console
+        logger.error(String.format("Error while processing patch field [%s]", step.path()), e);
+    }
+
+    private static Object defaultValue(final Type type) {
+        return type instanceof Class<?> clazz && clazz.isPrimitive() ? ClassUtil.defaultValue(clazz) : null;
+    }
+}
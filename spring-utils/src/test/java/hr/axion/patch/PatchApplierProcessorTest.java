@@ -0,0 +1,181 @@
+package hr.axion.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hr.axion.patch.processor.PatchApplierProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compiles a sample input class with {@link PatchApplierProcessor} and runs the generated applier
+ */
+class PatchApplierProcessorTest {
+
+    private static final String INPUT = """
+            package sample;
+
+            import com.fasterxml.jackson.databind.JsonNode;
+            import hr.axion.patch.PatchProperty;
+            import hr.axion.patch.PatchTarget;
+
+            @PatchTarget(Entity.class)
+            public class Input {
+                @PatchProperty
+                private int count;
+                @PatchProperty
+                private boolean active;
+                @PatchProperty
+                private String name;
+                @PatchProperty
+                private JsonNode settings;
+                @PatchProperty
+                private Address address;
+
+                public Input(int count, boolean active, String name, JsonNode settings, Address address) {
+                    this.count = count;
+                    this.active = active;
+                    this.name = name;
+                    this.settings = settings;
+                    this.address = address;
+                }
+
+                public int getCount() { return count; }
+                public boolean isActive() { return active; }
+                public String getName() { return name; }
+                public JsonNode getSettings() { return settings; }
+                public Address getAddress() { return address; }
+
+                public static class Address {
+                    @PatchProperty
+                    private String city;
+                    @PatchProperty
+                    private String street;
+
+                    public Address(String city, String street) {
+                        this.city = city;
+                        this.street = street;
+                    }
+
+                    public String getCity() { return city; }
+                    public String getStreet() { return street; }
+                }
+            }
+            """;
+
+    private static final String ENTITY = """
+            package sample;
+
+            import com.fasterxml.jackson.databind.JsonNode;
+
+            public class Entity {
+                public int count;
+                public boolean active;
+                public String name;
+                public JsonNode settings;
+                public String city;
+                public String street;
+
+                public void setCount(int count) { this.count = count; }
+                public void setActive(boolean active) { this.active = active; }
+                public void setName(String name) { this.name = name; }
+                public JsonNode getSettings() { return settings; }
+                public void setSettings(JsonNode settings) { this.settings = settings; }
+                public void setCity(String city) { this.city = city; }
+                public void setStreet(String street) { this.street = street; }
+            }
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void generatedApplierCopiesMaskedFields(@TempDir Path outputDir) throws Exception {
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(outputDir,
+                source("sample.Input", INPUT), source("sample.Entity", ENTITY));
+
+        assertThat(diagnostics.getDiagnostics())
+                .filteredOn(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .isEmpty();
+        assertThat(outputDir.resolve("sample/Input_PatchApplier.class")).exists();
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{outputDir.toUri().toURL()},
+                getClass().getClassLoader())) {
+            @SuppressWarnings("unchecked")
+            final PatchApplier<Object, Object> applier = (PatchApplier<Object, Object>) classLoader
+                    .loadClass("sample.Input_PatchApplier").getDeclaredConstructor().newInstance();
+            final Class<?> inputType = classLoader.loadClass("sample.Input");
+            final Class<?> addressType = classLoader.loadClass("sample.Input$Address");
+            final Class<?> entityType = classLoader.loadClass("sample.Entity");
+
+            assertThat(applier.inputType()).isEqualTo(inputType);
+            assertThat(applier.targetType()).isEqualTo(entityType);
+            assertThat(applier.patchFields())
+                    .containsExactly("count", "active", "name", "settings.*", "address.city", "address.street");
+
+            final Object address = addressType.getConstructor(String.class, String.class)
+                    .newInstance("Zagreb", "Ilica");
+            final Object input = inputType
+                    .getConstructor(int.class, boolean.class, String.class, JsonNode.class, addressType)
+                    .newInstance(5, true, "new", objectMapper.readTree("{\"theme\":\"dark\",\"lang\":\"de\"}"),
+                            address);
+            final Object entity = entityType.getConstructor().newInstance();
+            entityType.getField("name").set(entity, "old");
+            entityType.getField("street").set(entity, "Vlaska");
+            entityType.getField("settings").set(entity, objectMapper.readTree("{\"theme\":\"light\",\"lang\":\"en\"}"));
+
+            final List<String> errors = new ArrayList<>();
+            applier.apply(FieldMask.of(List.of("count", "active", "settings.theme", "address.city")), input, entity,
+                    (path, e) -> errors.add(path));
+
+            assertThat(errors).isEmpty();
+            assertThat(entityType.getField("count").get(entity)).isEqualTo(5);
+            assertThat(entityType.getField("active").get(entity)).isEqualTo(true);
+            assertThat(entityType.getField("name").get(entity)).isEqualTo("old");
+            assertThat(entityType.getField("city").get(entity)).isEqualTo("Zagreb");
+            assertThat(entityType.getField("street").get(entity)).isEqualTo("Vlaska");
+            assertThat(entityType.getField("settings").get(entity))
+                    .isEqualTo(objectMapper.readTree("{\"theme\":\"dark\",\"lang\":\"en\"}"));
+        }
+    }
+
+    private static DiagnosticCollector<JavaFileObject> compile(Path outputDir, JavaFileObject... sources)
+            throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            final List<String> options = List.of("-d", outputDir.toString(), "-s", Files.createDirectories(
+                    outputDir.resolve("generated")).toString(), "-classpath", System.getProperty("java.class.path"));
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options,
+                    null, List.of(sources));
+            task.setProcessors(List.of(new PatchApplierProcessor()));
+            task.call();
+        }
+        return diagnostics;
+    }
+
+    private static JavaFileObject source(String className, String content) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+}